@@ -1,5 +1,11 @@
 package com.f4.reel.config;
 
+import feign.Logger;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
 /**
@@ -13,12 +19,84 @@ public class ApplicationProperties {
 
     private final Liquibase liquibase = new Liquibase();
 
+    private final Elasticsearch elasticsearch = new Elasticsearch();
+
+    private final Outbox outbox = new Outbox();
+
+    private final Sse sse = new Sse();
+
+    private final PexelsImport pexelsImport = new PexelsImport();
+
+    private final MediaDedup mediaDedup = new MediaDedup();
+
+    private final PexelsSearchCache pexelsSearchCache = new PexelsSearchCache();
+
+    private final ReelStream reelStream = new ReelStream();
+
+    private final ReelCache reelCache = new ReelCache();
+
+    private final UserProfileCache userProfileCache = new UserProfileCache();
+
+    private final ReelFeed reelFeed = new ReelFeed();
+
+    private final Feign feign = new Feign();
+
+    private final OutboundHttp outboundHttp = new OutboundHttp();
+
     // jhipster-needle-application-properties-property
 
     public Liquibase getLiquibase() {
         return liquibase;
     }
 
+    public Elasticsearch getElasticsearch() {
+        return elasticsearch;
+    }
+
+    public Outbox getOutbox() {
+        return outbox;
+    }
+
+    public Sse getSse() {
+        return sse;
+    }
+
+    public PexelsImport getPexelsImport() {
+        return pexelsImport;
+    }
+
+    public MediaDedup getMediaDedup() {
+        return mediaDedup;
+    }
+
+    public PexelsSearchCache getPexelsSearchCache() {
+        return pexelsSearchCache;
+    }
+
+    public ReelStream getReelStream() {
+        return reelStream;
+    }
+
+    public ReelCache getReelCache() {
+        return reelCache;
+    }
+
+    public UserProfileCache getUserProfileCache() {
+        return userProfileCache;
+    }
+
+    public ReelFeed getReelFeed() {
+        return reelFeed;
+    }
+
+    public Feign getFeign() {
+        return feign;
+    }
+
+    public OutboundHttp getOutboundHttp() {
+        return outboundHttp;
+    }
+
     // jhipster-needle-application-properties-property-getter
 
     public static class Liquibase {
@@ -33,5 +111,962 @@ public class ApplicationProperties {
             this.asyncStart = asyncStart;
         }
     }
+
+    public static class Elasticsearch {
+
+        private final Reindex reindex = new Reindex();
+
+        private final Indexing indexing = new Indexing();
+
+        public Reindex getReindex() {
+            return reindex;
+        }
+
+        public Indexing getIndexing() {
+            return indexing;
+        }
+
+        public static class Indexing {
+
+            /**
+             * Maximum number of coalesced operations per bulk request.
+             */
+            private int batchSize = 500;
+
+            public int getBatchSize() {
+                return batchSize;
+            }
+
+            public void setBatchSize(int batchSize) {
+                this.batchSize = batchSize;
+            }
+        }
+
+        public static class Reindex {
+
+            /**
+             * JDBC fetch size of the reindex cursor. The MySQL profiles set {@code Integer.MIN_VALUE}, which makes
+             * Connector/J stream row by row; other drivers reject it.
+             */
+            private int fetchSize = 1000;
+
+            /**
+             * Maximum size in bytes of the documents sent in a single bulk request.
+             */
+            private long bulkSizeBytes = 5L * 1024 * 1024;
+
+            /**
+             * Maximum number of bulk requests in flight at the same time.
+             */
+            private int maxBulksInFlight = 2;
+
+            /**
+             * How long the index being rebuilt remembers deleted reels, so that the database snapshot cannot bring them
+             * back; should exceed the duration of a rebuild.
+             */
+            private Duration gcDeletes = Duration.ofHours(1);
+
+            /**
+             * Whether to rebuild the index at startup when the alias does not point to a versioned index yet; index
+             * writes are refused until it does.
+             */
+            private boolean rebuildOnStartup = true;
+
+            public int getFetchSize() {
+                return fetchSize;
+            }
+
+            public void setFetchSize(int fetchSize) {
+                this.fetchSize = fetchSize;
+            }
+
+            public long getBulkSizeBytes() {
+                return bulkSizeBytes;
+            }
+
+            public void setBulkSizeBytes(long bulkSizeBytes) {
+                this.bulkSizeBytes = bulkSizeBytes;
+            }
+
+            public int getMaxBulksInFlight() {
+                return maxBulksInFlight;
+            }
+
+            public void setMaxBulksInFlight(int maxBulksInFlight) {
+                this.maxBulksInFlight = maxBulksInFlight;
+            }
+
+            public Duration getGcDeletes() {
+                return gcDeletes;
+            }
+
+            public void setGcDeletes(Duration gcDeletes) {
+                this.gcDeletes = gcDeletes;
+            }
+
+            public boolean isRebuildOnStartup() {
+                return rebuildOnStartup;
+            }
+
+            public void setRebuildOnStartup(boolean rebuildOnStartup) {
+                this.rebuildOnStartup = rebuildOnStartup;
+            }
+        }
+    }
+
+    public static class Outbox {
+
+        /**
+         * Delay between two polls of the outbox table when it has been drained.
+         */
+        private Duration pollInterval = Duration.ofMillis(500);
+
+        /**
+         * Maximum number of events relayed per transaction.
+         */
+        private int batchSize = 200;
+
+        /**
+         * Kafka destination the reel change events are published to; blank disables publishing.
+         */
+        private String destination = "reel-changes";
+
+        /**
+         * Number of rejections after which an event is moved to the dead-letter table.
+         */
+        private int maxAttempts = 10;
+
+        /**
+         * Delay before retrying an event rejected once, doubled on every further rejection.
+         */
+        private Duration retryBackoff = Duration.ofSeconds(1);
+
+        /**
+         * Maximum delay before retrying a rejected event.
+         */
+        private Duration maxRetryBackoff = Duration.ofMinutes(10);
+
+        public Duration getPollInterval() {
+            return pollInterval;
+        }
+
+        public void setPollInterval(Duration pollInterval) {
+            this.pollInterval = pollInterval;
+        }
+
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public void setBatchSize(int batchSize) {
+            this.batchSize = batchSize;
+        }
+
+        public String getDestination() {
+            return destination;
+        }
+
+        public void setDestination(String destination) {
+            this.destination = destination;
+        }
+
+        public int getMaxAttempts() {
+            return maxAttempts;
+        }
+
+        public void setMaxAttempts(int maxAttempts) {
+            this.maxAttempts = maxAttempts;
+        }
+
+        public Duration getRetryBackoff() {
+            return retryBackoff;
+        }
+
+        public void setRetryBackoff(Duration retryBackoff) {
+            this.retryBackoff = retryBackoff;
+        }
+
+        public Duration getMaxRetryBackoff() {
+            return maxRetryBackoff;
+        }
+
+        public void setMaxRetryBackoff(Duration maxRetryBackoff) {
+            this.maxRetryBackoff = maxRetryBackoff;
+        }
+    }
+
+    public static class Sse {
+
+        /**
+         * What to do when a subscriber's buffer is full.
+         */
+        public enum OverflowPolicy {
+            /** Drop the oldest buffered event to make room. */
+            DROP_OLDEST,
+            /** Disconnect the subscriber, it can reconnect and catch up. */
+            DISCONNECT,
+        }
+
+        /**
+         * Number of fan-out threads, each owning a shard of the subscribers.
+         */
+        private int shards = 4;
+
+        /**
+         * Number of threads writing to the subscribers' connections.
+         */
+        private int writerThreads = 8;
+
+        /**
+         * Maximum number of events buffered per subscriber.
+         */
+        private int bufferSize = 64;
+
+        /**
+         * Maximum number of events waiting to be fanned out, per shard.
+         */
+        private int shardQueueCapacity = 1024;
+
+        private OverflowPolicy overflowPolicy = OverflowPolicy.DROP_OLDEST;
+
+        /**
+         * Interval between two heartbeat comments, which keep idle connections open and reveal dead ones.
+         */
+        private Duration heartbeatInterval = Duration.ofSeconds(15);
+
+        /**
+         * Lifetime of a subscription; clients are expected to reconnect.
+         */
+        private Duration timeout = Duration.ofMinutes(30);
+
+        /**
+         * Maximum number of frames a writer sends to a subscriber before serving the others.
+         */
+        private int maxFramesPerDrain = 16;
+
+        /**
+         * How long a write to a subscriber may block before the subscriber is disconnected.
+         */
+        private Duration writeTimeout = Duration.ofSeconds(10);
+
+        public int getShards() {
+            return shards;
+        }
+
+        public void setShards(int shards) {
+            this.shards = shards;
+        }
+
+        public int getWriterThreads() {
+            return writerThreads;
+        }
+
+        public void setWriterThreads(int writerThreads) {
+            this.writerThreads = writerThreads;
+        }
+
+        public int getBufferSize() {
+            return bufferSize;
+        }
+
+        public void setBufferSize(int bufferSize) {
+            this.bufferSize = bufferSize;
+        }
+
+        public int getShardQueueCapacity() {
+            return shardQueueCapacity;
+        }
+
+        public void setShardQueueCapacity(int shardQueueCapacity) {
+            this.shardQueueCapacity = shardQueueCapacity;
+        }
+
+        public OverflowPolicy getOverflowPolicy() {
+            return overflowPolicy;
+        }
+
+        public void setOverflowPolicy(OverflowPolicy overflowPolicy) {
+            this.overflowPolicy = overflowPolicy;
+        }
+
+        public Duration getHeartbeatInterval() {
+            return heartbeatInterval;
+        }
+
+        public void setHeartbeatInterval(Duration heartbeatInterval) {
+            this.heartbeatInterval = heartbeatInterval;
+        }
+
+        public Duration getTimeout() {
+            return timeout;
+        }
+
+        public void setTimeout(Duration timeout) {
+            this.timeout = timeout;
+        }
+
+        public int getMaxFramesPerDrain() {
+            return maxFramesPerDrain;
+        }
+
+        public void setMaxFramesPerDrain(int maxFramesPerDrain) {
+            this.maxFramesPerDrain = maxFramesPerDrain;
+        }
+
+        public Duration getWriteTimeout() {
+            return writeTimeout;
+        }
+
+        public void setWriteTimeout(Duration writeTimeout) {
+            this.writeTimeout = writeTimeout;
+        }
+    }
+
+    public static class PexelsImport {
+
+        /**
+         * Number of threads downloading assets, shared by all the import jobs.
+         */
+        private int workers = 8;
+
+        /**
+         * Maximum number of concurrent downloads from a single host.
+         */
+        private int maxPerHost = 4;
+
+        /**
+         * Number of reels created per transaction.
+         */
+        private int batchSize = 50;
+
+        /**
+         * Maximum number of assets accepted in a single import job.
+         */
+        private int maxAssets = 500;
+
+        /**
+         * How long a finished job can still be queried.
+         */
+        private Duration jobRetention = Duration.ofHours(1);
+
+        /**
+         * Maximum number of assets queued for import across all the jobs; a job that would exceed it is refused.
+         */
+        private int queueCapacity = 2000;
+
+        /**
+         * Hosts assets may be downloaded from, in addition to the MinIO host.
+         */
+        private List<String> allowedHosts = new ArrayList<>(List.of("videos.pexels.com"));
+
+        public int getWorkers() {
+            return workers;
+        }
+
+        public void setWorkers(int workers) {
+            this.workers = workers;
+        }
+
+        public int getMaxPerHost() {
+            return maxPerHost;
+        }
+
+        public void setMaxPerHost(int maxPerHost) {
+            this.maxPerHost = maxPerHost;
+        }
+
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public void setBatchSize(int batchSize) {
+            this.batchSize = batchSize;
+        }
+
+        public int getMaxAssets() {
+            return maxAssets;
+        }
+
+        public void setMaxAssets(int maxAssets) {
+            this.maxAssets = maxAssets;
+        }
+
+        public Duration getJobRetention() {
+            return jobRetention;
+        }
+
+        public void setJobRetention(Duration jobRetention) {
+            this.jobRetention = jobRetention;
+        }
+
+        public int getQueueCapacity() {
+            return queueCapacity;
+        }
+
+        public void setQueueCapacity(int queueCapacity) {
+            this.queueCapacity = queueCapacity;
+        }
+
+        public List<String> getAllowedHosts() {
+            return allowedHosts;
+        }
+
+        public void setAllowedHosts(List<String> allowedHosts) {
+            this.allowedHosts = allowedHosts;
+        }
+    }
+
+    public static class MediaDedup {
+
+        /**
+         * Whether stored media are deduplicated by content hash and by source.
+         */
+        private boolean enabled = true;
+
+        /**
+         * Maximum number of deduplication keys kept in the local cache in front of the index.
+         */
+        private long cacheSize = 10_000;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public long getCacheSize() {
+            return cacheSize;
+        }
+
+        public void setCacheSize(long cacheSize) {
+            this.cacheSize = cacheSize;
+        }
+    }
+
+    public static class PexelsSearchCache {
+
+        /**
+         * Maximum number of search results kept in memory.
+         */
+        private long maximumSize = 1_000;
+
+        /**
+         * How long search results are served from memory.
+         */
+        private Duration timeToLive = Duration.ofMinutes(10);
+
+        public long getMaximumSize() {
+            return maximumSize;
+        }
+
+        public void setMaximumSize(long maximumSize) {
+            this.maximumSize = maximumSize;
+        }
+
+        public Duration getTimeToLive() {
+            return timeToLive;
+        }
+
+        public void setTimeToLive(Duration timeToLive) {
+            this.timeToLive = timeToLive;
+        }
+    }
+
+    public static class ReelStream {
+
+        /**
+         * Number of leading bytes of a video kept in the hot-segment cache, roughly its first seconds.
+         */
+        private int hotSegmentSize = 1024 * 1024;
+
+        /**
+         * Maximum total size of the hot-segment cache, in bytes.
+         */
+        private long hotCacheSize = 256L * 1024 * 1024;
+
+        /**
+         * How long an unused hot segment, or the metadata of a video, stays cached.
+         */
+        private Duration cacheTtl = Duration.ofMinutes(30);
+
+        /**
+         * Size of the buffer used to copy ranges from MinIO to the client.
+         */
+        private int bufferSize = 64 * 1024;
+
+        /**
+         * Max-age of the Cache-Control header: stored videos are never modified in place.
+         */
+        private Duration maxAge = Duration.ofDays(7);
+
+        public int getHotSegmentSize() {
+            return hotSegmentSize;
+        }
+
+        public void setHotSegmentSize(int hotSegmentSize) {
+            this.hotSegmentSize = hotSegmentSize;
+        }
+
+        public long getHotCacheSize() {
+            return hotCacheSize;
+        }
+
+        public void setHotCacheSize(long hotCacheSize) {
+            this.hotCacheSize = hotCacheSize;
+        }
+
+        public Duration getCacheTtl() {
+            return cacheTtl;
+        }
+
+        public void setCacheTtl(Duration cacheTtl) {
+            this.cacheTtl = cacheTtl;
+        }
+
+        public int getBufferSize() {
+            return bufferSize;
+        }
+
+        public void setBufferSize(int bufferSize) {
+            this.bufferSize = bufferSize;
+        }
+
+        public Duration getMaxAge() {
+            return maxAge;
+        }
+
+        public void setMaxAge(Duration maxAge) {
+            this.maxAge = maxAge;
+        }
+    }
+
+    public static class ReelCache {
+
+        /**
+         * Maximum estimated size of the reels kept in the near-cache, in bytes.
+         */
+        private long maximumWeight = 64L * 1024 * 1024;
+
+        /**
+         * How long a reel is served from the near-cache before it is read again.
+         */
+        private Duration timeToLive = Duration.ofMinutes(10);
+
+        public long getMaximumWeight() {
+            return maximumWeight;
+        }
+
+        public void setMaximumWeight(long maximumWeight) {
+            this.maximumWeight = maximumWeight;
+        }
+
+        public Duration getTimeToLive() {
+            return timeToLive;
+        }
+
+        public void setTimeToLive(Duration timeToLive) {
+            this.timeToLive = timeToLive;
+        }
+    }
+
+    public static class UserProfileCache {
+
+        /**
+         * Maximum number of user profiles kept in memory.
+         */
+        private long maximumSize = 100_000;
+
+        /**
+         * Age after which a profile is reloaded in the background on its next read, the stale one being served meanwhile.
+         */
+        private Duration refreshAfter = Duration.ofMinutes(5);
+
+        /**
+         * Age after which a profile is no longer served, even when it cannot be reloaded.
+         */
+        private Duration expireAfter = Duration.ofHours(1);
+
+        /**
+         * How long a lookup waits for the msuser service before answering with the profiles already cached.
+         */
+        private Duration lookupTimeout = Duration.ofMillis(300);
+
+        /**
+         * Number of threads loading profiles from the msuser service.
+         */
+        private int lookupThreads = 4;
+
+        public long getMaximumSize() {
+            return maximumSize;
+        }
+
+        public void setMaximumSize(long maximumSize) {
+            this.maximumSize = maximumSize;
+        }
+
+        public Duration getRefreshAfter() {
+            return refreshAfter;
+        }
+
+        public void setRefreshAfter(Duration refreshAfter) {
+            this.refreshAfter = refreshAfter;
+        }
+
+        public Duration getExpireAfter() {
+            return expireAfter;
+        }
+
+        public void setExpireAfter(Duration expireAfter) {
+            this.expireAfter = expireAfter;
+        }
+
+        public Duration getLookupTimeout() {
+            return lookupTimeout;
+        }
+
+        public void setLookupTimeout(Duration lookupTimeout) {
+            this.lookupTimeout = lookupTimeout;
+        }
+
+        public int getLookupThreads() {
+            return lookupThreads;
+        }
+
+        public void setLookupThreads(int lookupThreads) {
+            this.lookupThreads = lookupThreads;
+        }
+    }
+
+    public static class ReelFeed {
+
+        /**
+         * Parent type of the reels in the comment and like service.
+         */
+        private String parentType = "REEL";
+
+        /**
+         * How long like and comment counts are served from memory.
+         */
+        private Duration countsTtl = Duration.ofSeconds(30);
+
+        /**
+         * Maximum number of like counts, and of comment counts, kept in memory.
+         */
+        private long countsMaximumSize = 50_000;
+
+        /**
+         * How long the feed waits for the downstream services before answering without their data.
+         */
+        private Duration timeout = Duration.ofMillis(500);
+
+        /**
+         * Number of threads calling the downstream services.
+         */
+        private int threads = 8;
+
+        public String getParentType() {
+            return parentType;
+        }
+
+        public void setParentType(String parentType) {
+            this.parentType = parentType;
+        }
+
+        public Duration getCountsTtl() {
+            return countsTtl;
+        }
+
+        public void setCountsTtl(Duration countsTtl) {
+            this.countsTtl = countsTtl;
+        }
+
+        public long getCountsMaximumSize() {
+            return countsMaximumSize;
+        }
+
+        public void setCountsMaximumSize(long countsMaximumSize) {
+            this.countsMaximumSize = countsMaximumSize;
+        }
+
+        public Duration getTimeout() {
+            return timeout;
+        }
+
+        public void setTimeout(Duration timeout) {
+            this.timeout = timeout;
+        }
+
+        public int getThreads() {
+            return threads;
+        }
+
+        public void setThreads(int threads) {
+            this.threads = threads;
+        }
+    }
+
+    public static class Feign {
+
+        /**
+         * Maximum number of instances tried by a call to another service, the first one included. Only idempotent
+         * calls, and calls that could not connect, are tried again.
+         */
+        private int maxAttempts = 2;
+
+        /**
+         * Maximum number of concurrent calls to a single service, unless overridden in {@code services}.
+         */
+        private int maxConcurrentCalls = 25;
+
+        /**
+         * How long a call waits for a slot when the maximum of concurrent calls to its service is reached.
+         */
+        private Duration maxWait = Duration.ZERO;
+
+        /**
+         * Overrides for some services, by service name.
+         */
+        private Map<String, Service> services = new HashMap<>();
+
+        /**
+         * How much of the sampled calls is logged, at debug level.
+         */
+        private Logger.Level logLevel = Logger.Level.FULL;
+
+        /**
+         * Fraction of the calls that are logged, between 0 and 1.
+         */
+        private double sampleRate = 0.01;
+
+        /**
+         * Whether the calls failing with an error status or an I/O error are logged with their body, at warn level.
+         */
+        private boolean logErrors = true;
+
+        public int getMaxAttempts() {
+            return maxAttempts;
+        }
+
+        public void setMaxAttempts(int maxAttempts) {
+            this.maxAttempts = maxAttempts;
+        }
+
+        public int getMaxConcurrentCalls() {
+            return maxConcurrentCalls;
+        }
+
+        public void setMaxConcurrentCalls(int maxConcurrentCalls) {
+            this.maxConcurrentCalls = maxConcurrentCalls;
+        }
+
+        public Duration getMaxWait() {
+            return maxWait;
+        }
+
+        public void setMaxWait(Duration maxWait) {
+            this.maxWait = maxWait;
+        }
+
+        public Map<String, Service> getServices() {
+            return services;
+        }
+
+        public void setServices(Map<String, Service> services) {
+            this.services = services;
+        }
+
+        public Logger.Level getLogLevel() {
+            return logLevel;
+        }
+
+        public void setLogLevel(Logger.Level logLevel) {
+            this.logLevel = logLevel;
+        }
+
+        public double getSampleRate() {
+            return sampleRate;
+        }
+
+        public void setSampleRate(double sampleRate) {
+            this.sampleRate = sampleRate;
+        }
+
+        public boolean isLogErrors() {
+            return logErrors;
+        }
+
+        public void setLogErrors(boolean logErrors) {
+            this.logErrors = logErrors;
+        }
+
+        public static class Service {
+
+            /**
+             * Maximum number of concurrent calls to the service.
+             */
+            private Integer maxConcurrentCalls;
+
+            /**
+             * How long to wait for the next bytes of a response of the service, instead of the outbound HTTP read timeout.
+             * <p>
+             * This bounds each wait, not the whole call: a response whose bytes keep trickling in within the timeout can
+             * take longer, and a retry on another instance starts a new wait. Callers that need a bound on the total time
+             * of a call enforce it themselves, as {@code UserProfileService} does with its lookup timeout.
+             */
+            private Duration timeout;
+
+            /**
+             * How much of the sampled calls to the service is logged.
+             */
+            private Logger.Level logLevel;
+
+            /**
+             * Fraction of the calls to the service that are logged.
+             */
+            private Double sampleRate;
+
+            public Integer getMaxConcurrentCalls() {
+                return maxConcurrentCalls;
+            }
+
+            public void setMaxConcurrentCalls(Integer maxConcurrentCalls) {
+                this.maxConcurrentCalls = maxConcurrentCalls;
+            }
+
+            public Duration getTimeout() {
+                return timeout;
+            }
+
+            public void setTimeout(Duration timeout) {
+                this.timeout = timeout;
+            }
+
+            public Logger.Level getLogLevel() {
+                return logLevel;
+            }
+
+            public void setLogLevel(Logger.Level logLevel) {
+                this.logLevel = logLevel;
+            }
+
+            public Double getSampleRate() {
+                return sampleRate;
+            }
+
+            public void setSampleRate(Double sampleRate) {
+                this.sampleRate = sampleRate;
+            }
+        }
+    }
+
+    public static class OutboundHttp {
+
+        /**
+         * Maximum number of connections open to all the hosts.
+         */
+        private int maxTotal = 200;
+
+        /**
+         * Maximum number of connections open to a single host, unless overridden in {@code maxPerHost}.
+         */
+        private int maxPerRoute = 50;
+
+        /**
+         * Maximum number of connections open to some hosts, by URL, for instance {@code https://videos.pexels.com}.
+         */
+        private Map<String, Integer> maxPerHost = new HashMap<>();
+
+        /**
+         * How long to wait for a connection to be established.
+         */
+        private Duration connectTimeout = Duration.ofSeconds(2);
+
+        /**
+         * How long to wait for the next bytes of a response. This bounds each read, not the whole call: see
+         * {@link Feign.Service#getTimeout()}.
+         */
+        private Duration readTimeout = Duration.ofSeconds(10);
+
+        /**
+         * How long to wait for a connection from the pool when all are in use.
+         */
+        private Duration poolTimeout = Duration.ofSeconds(1);
+
+        /**
+         * How long an unused connection is kept open.
+         */
+        private Duration idleTimeout = Duration.ofSeconds(30);
+
+        /**
+         * How long a connection is used before being replaced, so traffic follows DNS and load balancer changes.
+         */
+        private Duration timeToLive = Duration.ofMinutes(5);
+
+        public int getMaxTotal() {
+            return maxTotal;
+        }
+
+        public void setMaxTotal(int maxTotal) {
+            this.maxTotal = maxTotal;
+        }
+
+        public int getMaxPerRoute() {
+            return maxPerRoute;
+        }
+
+        public void setMaxPerRoute(int maxPerRoute) {
+            this.maxPerRoute = maxPerRoute;
+        }
+
+        public Map<String, Integer> getMaxPerHost() {
+            return maxPerHost;
+        }
+
+        public void setMaxPerHost(Map<String, Integer> maxPerHost) {
+            this.maxPerHost = maxPerHost;
+        }
+
+        public Duration getConnectTimeout() {
+            return connectTimeout;
+        }
+
+        public void setConnectTimeout(Duration connectTimeout) {
+            this.connectTimeout = connectTimeout;
+        }
+
+        public Duration getReadTimeout() {
+            return readTimeout;
+        }
+
+        public void setReadTimeout(Duration readTimeout) {
+            this.readTimeout = readTimeout;
+        }
+
+        public Duration getPoolTimeout() {
+            return poolTimeout;
+        }
+
+        public void setPoolTimeout(Duration poolTimeout) {
+            this.poolTimeout = poolTimeout;
+        }
+
+        public Duration getIdleTimeout() {
+            return idleTimeout;
+        }
+
+        public void setIdleTimeout(Duration idleTimeout) {
+            this.idleTimeout = idleTimeout;
+        }
+
+        public Duration getTimeToLive() {
+            return timeToLive;
+        }
+
+        public void setTimeToLive(Duration timeToLive) {
+            this.timeToLive = timeToLive;
+        }
+    }
     // jhipster-needle-application-properties-property-class
 }
@@ -3,14 +3,26 @@ package com.f4.reel.config;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import com.f4.reel.client.api.*;
+import feign.Client;
 import feign.Feign;
+import feign.FeignException;
 import feign.Logger;
+import feign.Request;
 import feign.RequestInterceptor;
+import feign.Response;
+import feign.Retryer;
 import feign.codec.Decoder;
 import feign.codec.Encoder;
 import feign.jackson.JacksonDecoder;
 import feign.jackson.JacksonEncoder;
-import feign.slf4j.Slf4jLogger;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.LoggerFactory;
+import org.springframework.cloud.client.ServiceInstance;
 import org.springframework.cloud.client.loadbalancer.LoadBalancerClient;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -18,17 +30,62 @@ import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
 import org.springframework.context.annotation.Lazy;
 
+import java.io.IOException;
 import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.lang.reflect.Proxy;
+import java.net.ConnectException;
+import java.net.URI;
+import java.time.Duration;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
 
 @Configuration
 public class FeignClientConfiguration {
 
+    private static final org.slf4j.Logger LOG = LoggerFactory.getLogger(FeignClientConfiguration.class);
+
+    private static final Set<Request.HttpMethod> IDEMPOTENT_METHODS = EnumSet.of(Request.HttpMethod.GET,
+            Request.HttpMethod.HEAD, Request.HttpMethod.OPTIONS, Request.HttpMethod.PUT, Request.HttpMethod.DELETE);
+
     private final LoadBalancerClient loadBalancerClient;
 
-    public FeignClientConfiguration(LoadBalancerClient loadBalancerClient) {
+    private final ApplicationProperties.Feign properties;
+
+    private final ApplicationProperties.OutboundHttp http;
+
+    private final int maxAttempts;
+
+    /**
+     * The transport shared by all the clients, whatever their target, so connections are reused across calls.
+     */
+    private final Client transport;
+
+    private final CircuitBreakerRegistry circuitBreakerRegistry;
+
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * The concurrent calls allowed to each service, shared by all the clients of the service.
+     */
+    private final Map<String, Semaphore> bulkheads = new ConcurrentHashMap<>();
+
+    public FeignClientConfiguration(LoadBalancerClient loadBalancerClient, ApplicationProperties applicationProperties,
+            Client feignTransport, CircuitBreakerRegistry circuitBreakerRegistry, MeterRegistry meterRegistry) {
         this.loadBalancerClient = loadBalancerClient;
+        this.properties = applicationProperties.getFeign();
+        this.http = applicationProperties.getOutboundHttp();
+        this.maxAttempts = Math.max(1, properties.getMaxAttempts());
+        this.transport = feignTransport;
+        this.circuitBreakerRegistry = circuitBreakerRegistry;
+        this.meterRegistry = meterRegistry;
     }
 
     @Bean
@@ -116,14 +173,57 @@ public class FeignClientConfiguration {
                 new LazyFeignHandler<>(serviceName, clazz, auth, enc, dec));
     }
 
+    private Semaphore bulkheadFor(String serviceName) {
+        return bulkheads.computeIfAbsent(serviceName, name -> {
+            ApplicationProperties.Feign.Service service = properties.getServices().get(name);
+            int permits = service != null && service.getMaxConcurrentCalls() != null
+                    ? service.getMaxConcurrentCalls()
+                    : properties.getMaxConcurrentCalls();
+            Semaphore bulkhead = new Semaphore(permits);
+            Gauge.builder("feign.bulkhead.available", bulkhead, Semaphore::availablePermits)
+                    .description("Calls to the service that can start right away")
+                    .tag("service", name)
+                    .register(meterRegistry);
+            return bulkhead;
+        });
+    }
+
+    private Logger loggerFor(String serviceName, Class<?> clazz) {
+        ApplicationProperties.Feign.Service service = properties.getServices().get(serviceName);
+        double sampleRate = service != null && service.getSampleRate() != null ? service.getSampleRate() : properties.getSampleRate();
+        return new SampledFeignLogger(clazz, sampleRate, properties.isLogErrors());
+    }
+
+    private Logger.Level logLevelFor(String serviceName) {
+        ApplicationProperties.Feign.Service service = properties.getServices().get(serviceName);
+        return service != null && service.getLogLevel() != null ? service.getLogLevel() : properties.getLogLevel();
+    }
+
+    private Request.Options optionsFor(String serviceName) {
+        ApplicationProperties.Feign.Service service = properties.getServices().get(serviceName);
+        Duration readTimeout = service != null && service.getTimeout() != null ? service.getTimeout() : http.getReadTimeout();
+        return new Request.Options(http.getConnectTimeout(), readTimeout, true);
+    }
+
     // === Lazy Feign client handler ===
+
+    /**
+     * Calls the Feign client of a service behind the bulkhead and the circuit breaker of the service.
+     * <p>
+     * A call is rejected right away, with a {@link RejectedExecutionException} when too many calls to the service are
+     * running, or with a {@link io.github.resilience4j.circuitbreaker.CallNotPermittedException} while its circuit
+     * breaker is open. Callers fall back on what they have cached, or do without. Every call is timed, by method and
+     * outcome.
+     */
     private class LazyFeignHandler<T> implements InvocationHandler {
         private final String serviceName;
         private final Class<T> clazz;
         private final RequestInterceptor auth;
         private final Encoder encoder;
         private final Decoder decoder;
-        private T feignClient;
+        private final Semaphore bulkhead;
+        private final CircuitBreaker circuitBreaker;
+        private volatile T feignClient;
 
         LazyFeignHandler(String serviceName, Class<T> clazz, RequestInterceptor auth, Encoder encoder,
                 Decoder decoder) {
@@ -132,6 +232,8 @@ public class FeignClientConfiguration {
             this.auth = auth;
             this.encoder = encoder;
             this.decoder = decoder;
+            this.bulkhead = bulkheadFor(serviceName);
+            this.circuitBreaker = circuitBreakerRegistry.circuitBreaker(serviceName);
         }
 
         @Override
@@ -146,23 +248,136 @@ public class FeignClientConfiguration {
                     return proxy == args[0];
             }
 
-            // Lazy init the Feign client
-            if (feignClient == null) {
-                var instance = loadBalancerClient.choose(serviceName);
-                if (instance == null) {
-                    throw new IllegalStateException("Service [" + serviceName + "] not found via discovery");
+            Timer.Sample sample = Timer.start(meterRegistry);
+            String outcome = "SUCCESS";
+            try {
+                acquire();
+                try {
+                    return circuitBreaker.executeCheckedSupplier(() -> {
+                        try {
+                            return method.invoke(feignClient(), args);
+                        } catch (InvocationTargetException e) {
+                            // callers expect the FeignException, not its reflective wrapper
+                            throw e.getCause();
+                        }
+                    });
+                } finally {
+                    bulkhead.release();
+                }
+            } catch (Throwable t) {
+                outcome = outcomeOf(t);
+                throw t;
+            } finally {
+                sample.stop(
+                        Timer.builder("feign.client.calls")
+                                .description("Calls to other services through the Feign clients")
+                                .tag("service", serviceName)
+                                .tag("client", clazz.getSimpleName())
+                                .tag("method", method.getName())
+                                .tag("outcome", outcome)
+                                .publishPercentileHistogram()
+                                .register(meterRegistry));
+            }
+        }
+
+        private static String outcomeOf(Throwable t) {
+            if (t instanceof RejectedExecutionException || t instanceof CallNotPermittedException) {
+                return "REJECTED";
+            }
+            if (t instanceof FeignException feignException && feignException.status() >= 400) {
+                return feignException.status() < 500 ? "CLIENT_ERROR" : "SERVER_ERROR";
+            }
+            return "ERROR";
+        }
+
+        private void acquire() {
+            try {
+                if (!bulkhead.tryAcquire(properties.getMaxWait().toNanos(), TimeUnit.NANOSECONDS)) {
+                    throw new RejectedExecutionException("Too many concurrent calls to [" + serviceName + "]");
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RejectedExecutionException("Interrupted while waiting to call [" + serviceName + "]", e);
+            }
+        }
+
+        private T feignClient() {
+            T client = feignClient;
+            if (client == null) {
+                synchronized (this) {
+                    client = feignClient;
+                    if (client == null) {
+                        // the instance is chosen by the load balancer on every call, the host is only a placeholder
+                        client = Feign.builder()
+                                .client(new LoadBalancedClient(serviceName))
+                                .options(optionsFor(serviceName))
+                                .retryer(Retryer.NEVER_RETRY)
+                                .encoder(encoder)
+                                .decoder(decoder)
+                                .requestInterceptor(auth)
+                                .logger(loggerFor(serviceName, clazz))
+                                .logLevel(logLevelFor(serviceName))
+                                .target(clazz, "http://" + serviceName);
+                        feignClient = client;
+                    }
                 }
-                String baseUrl = instance.getUri().toString();
-                feignClient = Feign.builder()
-                        .encoder(encoder)
-                        .decoder(decoder)
-                        .requestInterceptor(auth)
-                        .logger(new Slf4jLogger(clazz))
-                        .logLevel(Logger.Level.FULL)
-                        .target(clazz, baseUrl);
             }
+            return client;
+        }
+    }
+
+    // === Load-balanced transport ===
+
+    /**
+     * Sends each request to an instance chosen by the load balancer for that request, through the shared transport.
+     * <p>
+     * A request failing with an I/O error is tried again on another instance, up to {@code maxAttempts}, if it is
+     * idempotent or if it never reached the first one.
+     */
+    private class LoadBalancedClient implements Client {
+        private final String serviceName;
 
-            return method.invoke(feignClient, args);
+        LoadBalancedClient(String serviceName) {
+            this.serviceName = serviceName;
+        }
+
+        @Override
+        public Response execute(Request request, Request.Options options) throws IOException {
+            URI original = URI.create(request.url());
+            Set<String> tried = new HashSet<>();
+            for (int attempt = 1;; attempt++) {
+                ServiceInstance instance = choose(tried);
+                tried.add(instance.getUri().toString());
+                URI uri = loadBalancerClient.reconstructURI(instance, original);
+                try {
+                    return transport.execute(
+                            Request.create(request.httpMethod(), uri.toString(), request.headers(), request.body(),
+                                    request.charset(), request.requestTemplate()),
+                            options);
+                } catch (IOException e) {
+                    if (attempt >= maxAttempts || !(IDEMPOTENT_METHODS.contains(request.httpMethod())
+                            || e instanceof ConnectException)) {
+                        throw e;
+                    }
+                    LOG.debug("Retrying {} {} on another instance of {}: {}", request.httpMethod(), original.getPath(),
+                            serviceName, e.toString());
+                }
+            }
+        }
+
+        private ServiceInstance choose(Set<String> tried) {
+            ServiceInstance instance = loadBalancerClient.choose(serviceName);
+            if (instance == null) {
+                throw new IllegalStateException("Service [" + serviceName + "] not found via discovery");
+            }
+            if (tried.contains(instance.getUri().toString())) {
+                // the round robin usually moves on to the next instance, ask once more in case it did not
+                ServiceInstance other = loadBalancerClient.choose(serviceName);
+                if (other != null) {
+                    instance = other;
+                }
+            }
+            return instance;
         }
     }
-}
\ No newline at end of file
+}
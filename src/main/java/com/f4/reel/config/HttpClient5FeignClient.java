@@ -0,0 +1,110 @@
+package com.f4.reel.config;
+
+import feign.Client;
+import feign.Request;
+import feign.Response;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Map;
+import java.util.TreeMap;
+import org.apache.hc.client5.http.classic.HttpClient;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.protocol.HttpClientContext;
+import org.apache.hc.core5.http.ClassicHttpResponse;
+import org.apache.hc.core5.http.ContentType;
+import org.apache.hc.core5.http.Header;
+import org.apache.hc.core5.http.HttpEntity;
+import org.apache.hc.core5.http.HttpHeaders;
+import org.apache.hc.core5.http.io.entity.ByteArrayEntity;
+import org.apache.hc.core5.http.message.BasicClassicHttpRequest;
+import org.apache.hc.core5.util.Timeout;
+
+/**
+ * Feign transport over the pooled Apache HttpClient 5.
+ * <p>
+ * The connection of a call goes back to the pool when the body of its response is closed, which Feign does once the
+ * response is decoded.
+ */
+class HttpClient5FeignClient implements Client {
+
+    private final HttpClient httpClient;
+
+    private final RequestConfig defaultRequestConfig;
+
+    HttpClient5FeignClient(HttpClient httpClient, RequestConfig defaultRequestConfig) {
+        this.httpClient = httpClient;
+        this.defaultRequestConfig = defaultRequestConfig;
+    }
+
+    @Override
+    public Response execute(Request request, Request.Options options) throws IOException {
+        BasicClassicHttpRequest httpRequest = new BasicClassicHttpRequest(request.httpMethod().name(), URI.create(request.url()));
+        String contentType = null;
+        for (Map.Entry<String, Collection<String>> header : request.headers().entrySet()) {
+            // the entity sets the length
+            if (HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(header.getKey())) {
+                continue;
+            }
+            for (String value : header.getValue()) {
+                httpRequest.addHeader(header.getKey(), value);
+            }
+            if (HttpHeaders.CONTENT_TYPE.equalsIgnoreCase(header.getKey()) && !header.getValue().isEmpty()) {
+                contentType = header.getValue().iterator().next();
+            }
+        }
+        if (request.body() != null) {
+            httpRequest.setEntity(new ByteArrayEntity(request.body(), contentType != null ? ContentType.parse(contentType) : null));
+        }
+
+        HttpClientContext context = HttpClientContext.create();
+        context.setRequestConfig(
+            RequestConfig.copy(defaultRequestConfig)
+                .setResponseTimeout(Timeout.of(options.readTimeout(), options.readTimeoutUnit()))
+                .setRedirectsEnabled(options.isFollowRedirects())
+                .build()
+        );
+        ClassicHttpResponse httpResponse = httpClient.executeOpen(null, httpRequest, context);
+        return toFeignResponse(httpResponse, request);
+    }
+
+    private static Response toFeignResponse(ClassicHttpResponse httpResponse, Request request) throws IOException {
+        Map<String, Collection<String>> headers = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        for (Header header : httpResponse.getHeaders()) {
+            headers.computeIfAbsent(header.getName(), name -> new ArrayList<>()).add(header.getValue());
+        }
+        Response.Builder response = Response.builder()
+            .status(httpResponse.getCode())
+            .reason(httpResponse.getReasonPhrase())
+            .headers(headers)
+            .request(request);
+
+        HttpEntity entity = httpResponse.getEntity();
+        if (entity == null) {
+            httpResponse.close();
+            return response.build();
+        }
+        InputStream body;
+        try {
+            body = entity.getContent();
+        } catch (IOException | RuntimeException e) {
+            httpResponse.close();
+            throw e;
+        }
+        long length = entity.getContentLength();
+        InputStream content = new FilterInputStream(body) {
+            @Override
+            public void close() throws IOException {
+                try {
+                    super.close();
+                } finally {
+                    httpResponse.close();
+                }
+            }
+        };
+        return response.body(content, length >= 0 && length <= Integer.MAX_VALUE ? (int) length : null).build();
+    }
+}
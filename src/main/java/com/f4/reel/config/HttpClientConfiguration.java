@@ -0,0 +1,109 @@
+package com.f4.reel.config;
+
+import feign.Client;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+import java.net.URI;
+import org.apache.hc.client5.http.HttpRoute;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.http.HttpHost;
+import org.apache.hc.core5.pool.PoolConcurrencyPolicy;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * The HTTP client shared by all the outbound calls, of Feign and of {@link org.springframework.web.client.RestTemplate}.
+ * <p>
+ * Connections are pooled and kept alive, with a bound per host so a slow dependency cannot take all of them, and every
+ * step of a call has a timeout so a slow dependency cannot hold a thread forever. The read timeout bounds each wait for
+ * bytes, not the total time of a call: a response trickling in can take longer. The pool is exported as metrics under
+ * the {@code outbound} name.
+ */
+@Configuration
+public class HttpClientConfiguration {
+
+    private static final Logger LOG = LoggerFactory.getLogger(HttpClientConfiguration.class);
+
+    private static final String POOL_NAME = "outbound";
+
+    @Bean(destroyMethod = "close")
+    public PoolingHttpClientConnectionManager outboundConnectionManager(
+        ApplicationProperties applicationProperties,
+        MeterRegistry meterRegistry
+    ) {
+        ApplicationProperties.OutboundHttp properties = applicationProperties.getOutboundHttp();
+        PoolingHttpClientConnectionManager connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+            .setPoolConcurrencyPolicy(PoolConcurrencyPolicy.STRICT)
+            .setMaxConnTotal(properties.getMaxTotal())
+            .setMaxConnPerRoute(properties.getMaxPerRoute())
+            .setDefaultConnectionConfig(
+                ConnectionConfig.custom()
+                    .setConnectTimeout(Timeout.of(properties.getConnectTimeout()))
+                    .setSocketTimeout(Timeout.of(properties.getReadTimeout()))
+                    .setTimeToLive(TimeValue.of(properties.getTimeToLive()))
+                    // a connection closed by the other side while idle is detected before being reused
+                    .setValidateAfterInactivity(TimeValue.ofSeconds(2))
+                    .build()
+            )
+            .build();
+        properties
+            .getMaxPerHost()
+            .forEach((url, max) -> {
+                LOG.debug("Allowing {} connections to {}", max, url);
+                connectionManager.setMaxPerRoute(routeOf(url), max);
+            });
+        new PoolingHttpClientConnectionManagerMetricsBinder(connectionManager, POOL_NAME).bindTo(meterRegistry);
+        return connectionManager;
+    }
+
+    @Bean(destroyMethod = "close")
+    public CloseableHttpClient outboundHttpClient(
+        PoolingHttpClientConnectionManager outboundConnectionManager,
+        ApplicationProperties applicationProperties
+    ) {
+        ApplicationProperties.OutboundHttp properties = applicationProperties.getOutboundHttp();
+        return HttpClients.custom()
+            .setConnectionManager(outboundConnectionManager)
+            .setDefaultRequestConfig(requestConfig(properties))
+            .evictExpiredConnections()
+            .evictIdleConnections(TimeValue.of(properties.getIdleTimeout()))
+            // the Feign clients retry on another instance themselves
+            .disableAutomaticRetries()
+            .disableCookieManagement()
+            .build();
+    }
+
+    /**
+     * The transport of the Feign clients.
+     */
+    @Bean
+    public Client feignTransport(CloseableHttpClient outboundHttpClient, ApplicationProperties applicationProperties) {
+        return new HttpClient5FeignClient(outboundHttpClient, requestConfig(applicationProperties.getOutboundHttp()));
+    }
+
+    private static RequestConfig requestConfig(ApplicationProperties.OutboundHttp properties) {
+        return RequestConfig.custom()
+            .setConnectionRequestTimeout(Timeout.of(properties.getPoolTimeout()))
+            .setResponseTimeout(Timeout.of(properties.getReadTimeout()))
+            .build();
+    }
+
+    /**
+     * The route to a host as the client plans it, with the default port of the scheme when there is none.
+     */
+    private static HttpRoute routeOf(String url) {
+        URI uri = URI.create(url);
+        boolean secure = "https".equalsIgnoreCase(uri.getScheme());
+        int port = uri.getPort() != -1 ? uri.getPort() : (secure ? 443 : 80);
+        return new HttpRoute(new HttpHost(uri.getScheme(), uri.getHost(), port), null, secure);
+    }
+}
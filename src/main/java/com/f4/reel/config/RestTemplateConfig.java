@@ -1,14 +1,16 @@
 package com.f4.reel.config;
 
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.web.client.RestTemplate;
 
 @Configuration
 public class RestTemplateConfig {
 
     @Bean
-    public RestTemplate restTemplate() {
-        return new RestTemplate();
+    public RestTemplate restTemplate(CloseableHttpClient outboundHttpClient) {
+        return new RestTemplate(new HttpComponentsClientHttpRequestFactory(outboundHttpClient));
     }
 } 
\ No newline at end of file
@@ -0,0 +1,106 @@
+package com.f4.reel.config;
+
+import feign.Logger;
+import feign.Request;
+import feign.Response;
+import feign.Util;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ThreadLocalRandom;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Feign logger that only logs a sample of the calls, at debug level, and the failed ones, at warn level.
+ * <p>
+ * The calls that are neither sampled nor failed cost nothing: their bodies are not buffered and nothing is formatted.
+ * The {@code Authorization} header is never logged.
+ */
+class SampledFeignLogger extends Logger {
+
+    /**
+     * Maximum number of characters of the body of a failed call that are logged.
+     */
+    private static final int MAX_ERROR_BODY_LENGTH = 1000;
+
+    private static final String AUTHORIZATION = "Authorization";
+
+    /**
+     * Whether the call running on the thread was sampled: a Feign call runs on a single thread.
+     */
+    private static final ThreadLocal<Boolean> SAMPLED = new ThreadLocal<>();
+
+    private final org.slf4j.Logger logger;
+
+    private final double sampleRate;
+
+    private final boolean logErrors;
+
+    SampledFeignLogger(Class<?> clazz, double sampleRate, boolean logErrors) {
+        this.logger = LoggerFactory.getLogger(clazz);
+        this.sampleRate = sampleRate;
+        this.logErrors = logErrors;
+    }
+
+    @Override
+    protected boolean shouldLogRequestHeader(String header) {
+        return !AUTHORIZATION.equalsIgnoreCase(header);
+    }
+
+    @Override
+    protected void logRequest(String configKey, Level logLevel, Request request) {
+        boolean sampled = logger.isDebugEnabled() && sampleRate > 0 && ThreadLocalRandom.current().nextDouble() < sampleRate;
+        SAMPLED.set(sampled);
+        if (sampled) {
+            super.logRequest(configKey, logLevel, request);
+        }
+    }
+
+    @Override
+    protected Response logAndRebufferResponse(String configKey, Level logLevel, Response response, long elapsedTime)
+        throws IOException {
+        if (isSampled()) {
+            return super.logAndRebufferResponse(configKey, logLevel, response, elapsedTime);
+        }
+        if (!logErrors || response.status() < 400 || !logger.isWarnEnabled()) {
+            return response;
+        }
+        byte[] body = response.body() != null ? Util.toByteArray(response.body().asInputStream()) : null;
+        String text = body != null ? new String(body, StandardCharsets.UTF_8) : "";
+        if (text.length() > MAX_ERROR_BODY_LENGTH) {
+            text = text.substring(0, MAX_ERROR_BODY_LENGTH) + "...";
+        }
+        logger.warn(
+            "{}{} {} <--- {} {} ({}ms) {}",
+            methodTag(configKey),
+            response.request().httpMethod(),
+            response.request().url(),
+            response.status(),
+            response.reason(),
+            elapsedTime,
+            text
+        );
+        return body != null ? response.toBuilder().body(body).build() : response;
+    }
+
+    @Override
+    protected IOException logIOException(String configKey, Level logLevel, IOException ioe, long elapsedTime) {
+        if (isSampled()) {
+            return super.logIOException(configKey, logLevel, ioe, elapsedTime);
+        }
+        if (logErrors) {
+            logger.warn("{}<--- ERROR {}: {} ({}ms)", methodTag(configKey), ioe.getClass().getSimpleName(), ioe.getMessage(), elapsedTime);
+        }
+        return ioe;
+    }
+
+    private static boolean isSampled() {
+        boolean sampled = Boolean.TRUE.equals(SAMPLED.get());
+        SAMPLED.remove();
+        return sampled;
+    }
+
+    @Override
+    protected void log(String configKey, String format, Object... args) {
+        logger.debug(String.format(methodTag(configKey) + format, args));
+    }
+}
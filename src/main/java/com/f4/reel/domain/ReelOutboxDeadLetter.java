@@ -0,0 +1,193 @@
+package com.f4.reel.domain;
+
+import com.f4.reel.domain.enumeration.ReelOutboxEventType;
+import jakarta.persistence.*;
+import jakarta.validation.constraints.*;
+import java.io.Serializable;
+import java.time.Instant;
+import java.util.UUID;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+/**
+ * A {@link ReelOutboxEvent} given up after being rejected too many times, kept with its last error for inspection
+ * and replay.
+ */
+@Entity
+@Table(name = "reel_outbox_dead_letter")
+@SuppressWarnings("common-java:DuplicatedBlocks")
+public class ReelOutboxDeadLetter implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * The id of the outbox event.
+     */
+    @Id
+    @Column(name = "id")
+    private Long id;
+
+    @NotNull
+    @JdbcTypeCode(SqlTypes.VARCHAR)
+    @Column(name = "aggregate_id", length = 36, nullable = false)
+    private UUID aggregateId;
+
+    @NotNull
+    @Enumerated(EnumType.STRING)
+    @Column(name = "event_type", length = 16, nullable = false)
+    private ReelOutboxEventType eventType;
+
+    @Lob
+    @Column(name = "payload")
+    private String payload;
+
+    @NotNull
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    @Column(name = "attempts", nullable = false)
+    private int attempts;
+
+    @Size(max = 1000)
+    @Column(name = "error", length = 1000)
+    private String error;
+
+    @NotNull
+    @Column(name = "dead_lettered_at", nullable = false)
+    private Instant deadLetteredAt;
+
+    public Long getId() {
+        return this.id;
+    }
+
+    public ReelOutboxDeadLetter id(Long id) {
+        this.setId(id);
+        return this;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public UUID getAggregateId() {
+        return this.aggregateId;
+    }
+
+    public ReelOutboxDeadLetter aggregateId(UUID aggregateId) {
+        this.setAggregateId(aggregateId);
+        return this;
+    }
+
+    public void setAggregateId(UUID aggregateId) {
+        this.aggregateId = aggregateId;
+    }
+
+    public ReelOutboxEventType getEventType() {
+        return this.eventType;
+    }
+
+    public ReelOutboxDeadLetter eventType(ReelOutboxEventType eventType) {
+        this.setEventType(eventType);
+        return this;
+    }
+
+    public void setEventType(ReelOutboxEventType eventType) {
+        this.eventType = eventType;
+    }
+
+    public String getPayload() {
+        return this.payload;
+    }
+
+    public ReelOutboxDeadLetter payload(String payload) {
+        this.setPayload(payload);
+        return this;
+    }
+
+    public void setPayload(String payload) {
+        this.payload = payload;
+    }
+
+    public Instant getCreatedAt() {
+        return this.createdAt;
+    }
+
+    public ReelOutboxDeadLetter createdAt(Instant createdAt) {
+        this.setCreatedAt(createdAt);
+        return this;
+    }
+
+    public void setCreatedAt(Instant createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public int getAttempts() {
+        return this.attempts;
+    }
+
+    public ReelOutboxDeadLetter attempts(int attempts) {
+        this.setAttempts(attempts);
+        return this;
+    }
+
+    public void setAttempts(int attempts) {
+        this.attempts = attempts;
+    }
+
+    public String getError() {
+        return this.error;
+    }
+
+    public ReelOutboxDeadLetter error(String error) {
+        this.setError(error);
+        return this;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+
+    public Instant getDeadLetteredAt() {
+        return this.deadLetteredAt;
+    }
+
+    public ReelOutboxDeadLetter deadLetteredAt(Instant deadLetteredAt) {
+        this.setDeadLetteredAt(deadLetteredAt);
+        return this;
+    }
+
+    public void setDeadLetteredAt(Instant deadLetteredAt) {
+        this.deadLetteredAt = deadLetteredAt;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof ReelOutboxDeadLetter)) {
+            return false;
+        }
+        return getId() != null && getId().equals(((ReelOutboxDeadLetter) o).getId());
+    }
+
+    @Override
+    public int hashCode() {
+        // see https://vladmihalcea.com/how-to-implement-equals-and-hashcode-using-the-jpa-entity-identifier/
+        return getClass().hashCode();
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "ReelOutboxDeadLetter{" +
+            "id=" + getId() +
+            ", aggregateId='" + getAggregateId() + "'" +
+            ", eventType='" + getEventType() + "'" +
+            ", createdAt='" + getCreatedAt() + "'" +
+            ", attempts=" + getAttempts() +
+            ", error='" + getError() + "'" +
+            ", deadLetteredAt='" + getDeadLetteredAt() + "'" +
+            "}";
+    }
+}
@@ -0,0 +1,178 @@
+package com.f4.reel.domain;
+
+import com.f4.reel.domain.enumeration.ReelOutboxEventType;
+import jakarta.persistence.*;
+import jakarta.validation.constraints.*;
+import java.io.Serializable;
+import java.time.Instant;
+import java.util.UUID;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+/**
+ * A side effect of a {@link Reel} write (search indexing, Kafka notification), stored in the same
+ * transaction as the write and relayed once it is committed.
+ */
+@Entity
+@Table(name = "reel_outbox")
+@SuppressWarnings("common-java:DuplicatedBlocks")
+public class ReelOutboxEvent implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id")
+    private Long id;
+
+    @NotNull
+    @JdbcTypeCode(SqlTypes.VARCHAR)
+    @Column(name = "aggregate_id", length = 36, nullable = false)
+    private UUID aggregateId;
+
+    @NotNull
+    @Enumerated(EnumType.STRING)
+    @Column(name = "event_type", length = 16, nullable = false)
+    private ReelOutboxEventType eventType;
+
+    @Lob
+    @Column(name = "payload")
+    private String payload;
+
+    @NotNull
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    /**
+     * Number of times the event was rejected.
+     */
+    @Column(name = "attempts", nullable = false)
+    private int attempts;
+
+    /**
+     * When a rejected event may be relayed again, {@code null} for an event never rejected.
+     */
+    @Column(name = "next_attempt_at")
+    private Instant nextAttemptAt;
+
+    public Long getId() {
+        return this.id;
+    }
+
+    public ReelOutboxEvent id(Long id) {
+        this.setId(id);
+        return this;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public UUID getAggregateId() {
+        return this.aggregateId;
+    }
+
+    public ReelOutboxEvent aggregateId(UUID aggregateId) {
+        this.setAggregateId(aggregateId);
+        return this;
+    }
+
+    public void setAggregateId(UUID aggregateId) {
+        this.aggregateId = aggregateId;
+    }
+
+    public ReelOutboxEventType getEventType() {
+        return this.eventType;
+    }
+
+    public ReelOutboxEvent eventType(ReelOutboxEventType eventType) {
+        this.setEventType(eventType);
+        return this;
+    }
+
+    public void setEventType(ReelOutboxEventType eventType) {
+        this.eventType = eventType;
+    }
+
+    public String getPayload() {
+        return this.payload;
+    }
+
+    public ReelOutboxEvent payload(String payload) {
+        this.setPayload(payload);
+        return this;
+    }
+
+    public void setPayload(String payload) {
+        this.payload = payload;
+    }
+
+    public Instant getCreatedAt() {
+        return this.createdAt;
+    }
+
+    public ReelOutboxEvent createdAt(Instant createdAt) {
+        this.setCreatedAt(createdAt);
+        return this;
+    }
+
+    public void setCreatedAt(Instant createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public int getAttempts() {
+        return this.attempts;
+    }
+
+    public ReelOutboxEvent attempts(int attempts) {
+        this.setAttempts(attempts);
+        return this;
+    }
+
+    public void setAttempts(int attempts) {
+        this.attempts = attempts;
+    }
+
+    public Instant getNextAttemptAt() {
+        return this.nextAttemptAt;
+    }
+
+    public ReelOutboxEvent nextAttemptAt(Instant nextAttemptAt) {
+        this.setNextAttemptAt(nextAttemptAt);
+        return this;
+    }
+
+    public void setNextAttemptAt(Instant nextAttemptAt) {
+        this.nextAttemptAt = nextAttemptAt;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof ReelOutboxEvent)) {
+            return false;
+        }
+        return getId() != null && getId().equals(((ReelOutboxEvent) o).getId());
+    }
+
+    @Override
+    public int hashCode() {
+        // see https://vladmihalcea.com/how-to-implement-equals-and-hashcode-using-the-jpa-entity-identifier/
+        return getClass().hashCode();
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "ReelOutboxEvent{" +
+            "id=" + getId() +
+            ", aggregateId='" + getAggregateId() + "'" +
+            ", eventType='" + getEventType() + "'" +
+            ", createdAt='" + getCreatedAt() + "'" +
+            ", attempts=" + getAttempts() +
+            ", nextAttemptAt='" + getNextAttemptAt() + "'" +
+            "}";
+    }
+}
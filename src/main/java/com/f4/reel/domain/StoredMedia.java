@@ -0,0 +1,134 @@
+package com.f4.reel.domain;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.*;
+import java.io.Serializable;
+import java.time.Instant;
+
+/**
+ * A media object stored in MinIO, indexed by a deduplication key: the SHA-256 digest of its content, or the source it
+ * was downloaded from.
+ */
+@Entity
+@Table(name = "stored_media")
+@SuppressWarnings("common-java:DuplicatedBlocks")
+public class StoredMedia implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id")
+    private Long id;
+
+    @NotNull
+    @Size(max = 80)
+    @Column(name = "dedup_key", length = 80, nullable = false, unique = true)
+    private String dedupKey;
+
+    @NotNull
+    @Size(max = 255)
+    @Column(name = "object_name", length = 255, nullable = false)
+    private String objectName;
+
+    @Column(name = "size")
+    private Long size;
+
+    @NotNull
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    public Long getId() {
+        return this.id;
+    }
+
+    public StoredMedia id(Long id) {
+        this.setId(id);
+        return this;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getDedupKey() {
+        return this.dedupKey;
+    }
+
+    public StoredMedia dedupKey(String dedupKey) {
+        this.setDedupKey(dedupKey);
+        return this;
+    }
+
+    public void setDedupKey(String dedupKey) {
+        this.dedupKey = dedupKey;
+    }
+
+    public String getObjectName() {
+        return this.objectName;
+    }
+
+    public StoredMedia objectName(String objectName) {
+        this.setObjectName(objectName);
+        return this;
+    }
+
+    public void setObjectName(String objectName) {
+        this.objectName = objectName;
+    }
+
+    public Long getSize() {
+        return this.size;
+    }
+
+    public StoredMedia size(Long size) {
+        this.setSize(size);
+        return this;
+    }
+
+    public void setSize(Long size) {
+        this.size = size;
+    }
+
+    public Instant getCreatedAt() {
+        return this.createdAt;
+    }
+
+    public StoredMedia createdAt(Instant createdAt) {
+        this.setCreatedAt(createdAt);
+        return this;
+    }
+
+    public void setCreatedAt(Instant createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof StoredMedia)) {
+            return false;
+        }
+        return getId() != null && getId().equals(((StoredMedia) o).getId());
+    }
+
+    @Override
+    public int hashCode() {
+        // see https://vladmihalcea.com/how-to-implement-equals-and-hashcode-using-the-jpa-entity-identifier/
+        return getClass().hashCode();
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "StoredMedia{" +
+            "id=" + getId() +
+            ", dedupKey='" + getDedupKey() + "'" +
+            ", objectName='" + getObjectName() + "'" +
+            ", size=" + getSize() +
+            ", createdAt='" + getCreatedAt() + "'" +
+            "}";
+    }
+}
@@ -0,0 +1,9 @@
+package com.f4.reel.domain.enumeration;
+
+/**
+ * The ReelOutboxEventType enumeration.
+ */
+public enum ReelOutboxEventType {
+    UPSERTED,
+    DELETED,
+}
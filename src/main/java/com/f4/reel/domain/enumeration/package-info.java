@@ -0,0 +1,4 @@
+/**
+ * Domain enumerations.
+ */
+package com.f4.reel.domain.enumeration;
@@ -0,0 +1,48 @@
+package com.f4.reel.kafka.broker;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Consumer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.messaging.Message;
+import org.springframework.stereotype.Component;
+import com.f4.reel.avro.EventEnvelope;
+import com.f4.reel.kafka.service.KafkaUtilityService;
+
+/**
+ * Batch flavour of {@link KafkaConsumer}, bound to the same
+ * {@code kafkaConsumer-in-0} binding when its {@code batch-mode} is enabled.
+ * The whole poll is processed on the listener thread, then acknowledged.
+ */
+@Component("kafkaConsumer")
+@ConditionalOnProperty(name = KafkaBatchConsumer.BATCH_MODE_PROPERTY, havingValue = "true")
+public class KafkaBatchConsumer implements Consumer<Message<List<EventEnvelope>>> {
+
+    public static final String BATCH_MODE_PROPERTY = "spring.cloud.stream.bindings.kafkaConsumer-in-0.consumer.batch-mode";
+
+    private static final Logger LOG = LoggerFactory.getLogger(KafkaBatchConsumer.class);
+
+    private final KafkaUtilityService kafkaUtilityService;
+
+    public KafkaBatchConsumer(KafkaUtilityService kafkaUtilityService) {
+        this.kafkaUtilityService = kafkaUtilityService;
+    }
+
+    @Override
+    public void accept(Message<List<EventEnvelope>> message) {
+        // records that failed to deserialize come through as null
+        List<EventEnvelope> avroMessages = message.getPayload().stream().filter(Objects::nonNull).toList();
+        LOG.debug("Got a batch of {} Avro messages", avroMessages.size());
+
+        kafkaUtilityService.consumeBatch(avroMessages);
+
+        Acknowledgment acknowledgment = message.getHeaders().get(KafkaHeaders.ACKNOWLEDGMENT, Acknowledgment.class);
+        if (acknowledgment != null) {
+            acknowledgment.acknowledge();
+        }
+    }
+}
@@ -3,13 +3,17 @@ package com.f4.reel.kafka.broker;
 import java.util.function.Consumer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Component;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import org.springframework.messaging.Message;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.kafka.support.KafkaHeaders;
 import com.f4.reel.avro.EventEnvelope;
 import com.f4.reel.kafka.service.KafkaUtilityService;
 
 @Component
+@ConditionalOnProperty(name = KafkaBatchConsumer.BATCH_MODE_PROPERTY, havingValue = "false", matchIfMissing = true)
 public class KafkaConsumer implements Consumer<Message<EventEnvelope>> {
 
     private static final Logger LOG = LoggerFactory.getLogger(KafkaConsumer.class);
@@ -34,14 +38,17 @@ public class KafkaConsumer implements Consumer<Message<EventEnvelope>> {
 
         LOG.debug("Got Avro message with key [{}]: {}", keyStr, avroMessage);
 
-        kafkaUtilityService.submitEventJob(avroMessage, keyStr);
+        // Offsets are committed once the job acknowledges, see KafkaConsumerConfig
+        Acknowledgment acknowledgment = message.getHeaders().get(KafkaHeaders.ACKNOWLEDGMENT, Acknowledgment.class);
+
+        kafkaUtilityService.submitOrderedEventJob(avroMessage, keyStr, acknowledgment);
     }
 
     public SseEmitter register(String key) {
-        return kafkaUtilityService.consumer_registerSseEmitter(key, kafkaUtilityService.getEmitters());
+        return kafkaUtilityService.consumer_registerSseEmitter(key);
     }
 
     public void unregister(String key) {
-        kafkaUtilityService.consumer_unregisterSseEmitter(key, kafkaUtilityService.getEmitters());
+        kafkaUtilityService.consumer_unregisterSseEmitter(key);
     }
 }
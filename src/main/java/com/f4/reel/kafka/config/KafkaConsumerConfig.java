@@ -0,0 +1,43 @@
+package com.f4.reel.kafka.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cloud.stream.config.ListenerContainerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.listener.AbstractMessageListenerContainer;
+import org.springframework.kafka.listener.ContainerProperties;
+
+/**
+ * Configuration of the Kafka listener containers behind the consumer bindings.
+ * <p>
+ * Records are processed off the listener thread, in per-key lanes, so they
+ * complete out of order. With manual acknowledgment and async acks the
+ * container only commits, per partition, up to the lowest offset whose record
+ * and predecessors have all been acknowledged: a crash replays the unfinished
+ * records instead of losing them.
+ * <p>
+ * Async acks come with a bound: the container does not poll again until every
+ * record of the previous poll has been acknowledged. A slow key therefore holds
+ * back all the partitions of its consumer, not just its own lane, and keys only
+ * run in parallel within a single poll. {@code max.poll.records} is the knob:
+ * it caps both the records in flight and how much work a slow key can hold up.
+ * It also caps the jobs waiting in {@code KafkaJobRunner}, whose queue capacity
+ * must stay below it for the runner to ever pause the binding.
+ */
+@Configuration
+public class KafkaConsumerConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(KafkaConsumerConfig.class);
+
+    @Bean
+    public ListenerContainerCustomizer<AbstractMessageListenerContainer<?, ?>> asyncAcksContainerCustomizer() {
+        return (container, destination, group) -> {
+            ContainerProperties properties = container.getContainerProperties();
+            if (properties.getAckMode() == ContainerProperties.AckMode.MANUAL) {
+                properties.setAsyncAcks(true);
+                log.info("Enabled out-of-order acknowledgments for destination {} (group {})", destination, group);
+            }
+        };
+    }
+}
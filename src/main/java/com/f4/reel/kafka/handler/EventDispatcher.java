@@ -1,10 +1,11 @@
 package com.f4.reel.kafka.handler;
 
-import java.lang.reflect.ParameterizedType;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
 
+import org.apache.avro.specific.SpecificRecord;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
@@ -15,44 +16,111 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 
+/**
+ * Routes events to the {@link EventHandler} registered for their name.
+ * <p>
+ * Payload types are resolved once, when the handlers are registered. Payloads
+ * that already have the handler's type are handed over as is, Avro records go
+ * through {@link EventHandler#fromAvro}, and only JSON payloads are bound with
+ * Jackson.
+ */
 @Component
 public class EventDispatcher {
     private static final Logger LOG = LoggerFactory.getLogger(EventDispatcher.class);
-    
-    private final Map<String, EventHandler<?>> handlers;
+
+    private final Map<String, Registration> handlers;
     ObjectMapper mapper = new ObjectMapper()
             .registerModule(new JavaTimeModule())
             .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
 
     public EventDispatcher(List<EventHandler<?>> list) {
         this.handlers = list.stream()
-                .collect(Collectors.toMap(EventHandler::getEventName, h -> h));
+                .collect(Collectors.toMap(EventHandler::getEventName, this::register));
+    }
+
+    private Registration register(EventHandler<?> handler) {
+        Class<?> payloadType = handler.getPayloadType();
+        LOG.debug("Registered handler {} for event {} with payload {}", handler.getClass().getSimpleName(),
+                handler.getEventName(), payloadType.getName());
+        @SuppressWarnings("unchecked")
+        EventHandler<Object> untyped = (EventHandler<Object>) handler;
+        return new Registration(untyped, payloadType, mapper.getTypeFactory().constructType(payloadType));
     }
 
     /**
      * Dispatches events from JSON format
-     * 
+     *
      * @param env The event envelope containing JsonNode payload
      * @throws Exception If dispatching fails
      */
     public void dispatch(EventEnvelope<JsonNode> env) throws Exception {
-        String name = env.getEventName();
+        dispatch(env.getEventName(), env.getPayload());
+    }
+
+    /**
+     * Dispatches a payload to the handler of the event
+     *
+     * @param name    The name of the event
+     * @param payload The payload: an instance of the handler's payload type, an
+     *                Avro record or a JsonNode
+     * @return The payload as handed to the handler
+     * @throws Exception If dispatching fails
+     */
+    public Object dispatch(String name, Object payload) throws Exception {
         LOG.debug("Dispatching event: {}", name);
-        
-        EventHandler<?> handler = handlers.get(name);
-        if (handler == null)
-            throw new IllegalArgumentException("No handler for event: " + name);
 
-        // Figure out T at runtime
-        JavaType type = mapper.getTypeFactory()
-                .constructType(((ParameterizedType) handler.getClass()
-                        .getGenericInterfaces()[0]).getActualTypeArguments()[0]);
-        
-        Object dto = mapper.treeToValue(env.getPayload(), type);
-        LOG.debug("Converted payload to type: {}", type);
+        Registration registration = registrationFor(name);
+        Object dto = registration.convert(payload, mapper);
 
-        // noinspection unchecked
-        ((EventHandler<Object>) handler).handle(dto);
+        registration.handler().handle(dto);
         LOG.debug("Event handled successfully");
+        return dto;
+    }
+
+    /**
+     * Dispatches a batch of events of the same name to a single
+     * {@link EventHandler#handleAll(List)} call
+     *
+     * @param name     The name shared by all the events
+     * @param payloads The payloads, in order, see {@link #dispatch(String, Object)}
+     * @return The payloads as handed to the handler
+     * @throws Exception If dispatching fails
+     */
+    public List<Object> dispatchAll(String name, List<?> payloads) throws Exception {
+        LOG.debug("Dispatching {} events: {}", payloads.size(), name);
+
+        Registration registration = registrationFor(name);
+        List<Object> dtos = new ArrayList<>(payloads.size());
+        for (Object payload : payloads) {
+            dtos.add(registration.convert(payload, mapper));
+        }
+
+        registration.handler().handleAll(dtos);
+        LOG.debug("{} events handled successfully", dtos.size());
+        return dtos;
+    }
+
+    private Registration registrationFor(String name) {
+        Registration registration = handlers.get(name);
+        if (registration == null)
+            throw new IllegalArgumentException("No handler for event: " + name);
+        return registration;
+    }
+
+    private record Registration(EventHandler<Object> handler, Class<?> payloadType, JavaType javaType) {
+
+        Object convert(Object payload, ObjectMapper mapper) throws Exception {
+            if (payload == null || payloadType.isInstance(payload)) {
+                return payload;
+            }
+            if (payload instanceof SpecificRecord record) {
+                return handler.fromAvro(record);
+            }
+            if (payload instanceof JsonNode node) {
+                return mapper.treeToValue(node, javaType);
+            }
+            throw new IllegalArgumentException("Cannot convert " + payload.getClass().getName() + " to "
+                    + payloadType.getName() + " for event " + handler.getEventName());
+        }
     }
 }
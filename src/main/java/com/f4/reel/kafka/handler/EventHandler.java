@@ -1,7 +1,43 @@
 package com.f4.reel.kafka.handler;
 
+import java.util.List;
+
+import org.apache.avro.specific.SpecificRecord;
+import org.springframework.core.ResolvableType;
+
 public interface EventHandler<T> {
     String getEventName(); // e.g. "postReel"
 
     void handle(T payload);
+
+    /**
+     * Handle a batch of payloads, in order. Override when the batch can be
+     * handled more cheaply than one payload at a time.
+     */
+    default void handleAll(List<T> payloads) {
+        payloads.forEach(this::handle);
+    }
+
+    /**
+     * The payload class, resolved once when the handler is registered with the
+     * {@link EventDispatcher}. Override to avoid resolving it from the generic
+     * signature, e.g. when the handler is proxied.
+     */
+    @SuppressWarnings("unchecked")
+    default Class<T> getPayloadType() {
+        Class<?> type = ResolvableType.forClass(EventHandler.class, getClass()).resolveGeneric(0);
+        if (type == null) {
+            throw new IllegalStateException("Cannot resolve the payload type of " + getClass().getName());
+        }
+        return (Class<T>) type;
+    }
+
+    /**
+     * Convert an Avro record straight into the payload, without going through
+     * JSON. Handlers consuming Avro events override this.
+     */
+    default T fromAvro(SpecificRecord record) {
+        throw new IllegalArgumentException(
+                "Event " + getEventName() + " does not accept Avro payloads of type " + record.getSchema().getFullName());
+    }
 }
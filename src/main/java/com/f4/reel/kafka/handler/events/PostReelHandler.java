@@ -1,8 +1,12 @@
 package com.f4.reel.kafka.handler.events;
 
+import java.util.List;
+
+import org.apache.avro.specific.SpecificRecord;
 import org.springframework.stereotype.Component;
 
 import com.f4.reel.kafka.handler.EventHandler;
+import com.f4.reel.kafka.util.AvroConverter;
 import com.f4.reel.service.ReelService;
 import com.f4.reel.service.dto.ReelDTO;
 
@@ -18,7 +22,25 @@ public class PostReelHandler implements EventHandler<ReelDTO> {
         return "postReel";
     }
 
+    @Override
+    public Class<ReelDTO> getPayloadType() {
+        return ReelDTO.class;
+    }
+
+    @Override
+    public ReelDTO fromAvro(SpecificRecord record) {
+        if (record instanceof com.f4.reel.avro.ReelDTO avroReelDTO) {
+            return AvroConverter.convertToServiceReelDTO(avroReelDTO);
+        }
+        return EventHandler.super.fromAvro(record);
+    }
+
     public void handle(ReelDTO dto) {
         svc.save(dto);
     }
+
+    @Override
+    public void handleAll(List<ReelDTO> dtos) {
+        svc.saveAll(dtos);
+    }
 }
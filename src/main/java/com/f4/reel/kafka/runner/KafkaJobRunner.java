@@ -1,48 +1,184 @@
-
 package com.f4.reel.kafka.runner;
 
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import jakarta.annotation.PreDestroy;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.stream.binding.BindingsLifecycleController;
 import org.springframework.cloud.stream.function.StreamBridge;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
 import org.springframework.stereotype.Component;
 
 import com.f4.reel.avro.EventEnvelope;
 import com.f4.reel.avro.ReelDTO;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
 /**
  * A job runner for managing Kafka consumer tasks.
  * Provides thread management and task execution for Kafka event processing.
+ * <p>
+ * Jobs are queued in a bounded queue. When it fills up, the consumer binding is
+ * paused so no more records are polled, and it is resumed once the queue has
+ * drained below the low-water mark. A job that still does not fit (records of
+ * the poll in progress) runs on the thread submitting it, so nothing is
+ * dropped: the listener thread, or the worker handing over the next job of a
+ * lane.
+ * <p>
+ * In {@link Mode#VIRTUAL} mode (Java 21+) every job runs on its own virtual
+ * thread instead of the pool, and the consumer is paused the same way when too
+ * many jobs wait to run.
+ * <p>
+ * In both modes a semaphore caps the number of jobs running at the same time,
+ * by default at the size of the database pool, so it is never oversubscribed,
+ * including by the jobs running on the listener thread. A job only holds its
+ * permit while it runs, never while a lane schedules the next task, so permits
+ * are never waited for by a thread holding one.
+ * <p>
+ * Jobs submitted with an ordering key go through {@link KeyedLaneExecutor}
+ * lanes: jobs of the same key run in order, other keys run in parallel. The
+ * jobs waiting in the lanes count towards the queue capacity.
  */
 @Component
 public class KafkaJobRunner {
 
     private static final Logger log = LoggerFactory.getLogger(KafkaJobRunner.class);
 
-    private final ExecutorService executorService;
+    /**
+     * How jobs are executed.
+     */
+    public enum Mode {
+        /** A fixed pool of platform threads fed by a bounded queue. */
+        PLATFORM,
+        /** One virtual thread per job. */
+        VIRTUAL,
+    }
+
+    private final Mode mode;
+    private final ThreadPoolExecutor executorService;
+    private final SimpleAsyncTaskExecutor virtualExecutor;
+    private final Semaphore permits;
+    private final int maxConcurrency;
+    private final KeyedLaneExecutor lanes;
+    private final int queueCapacity;
     private final StreamBridge streamBridge;
+    private final ObjectProvider<BindingsLifecycleController> bindingsLifecycleController;
+    private final String bindingName;
+    private final int resumeThreshold;
+    private final AtomicBoolean paused = new AtomicBoolean();
+    private final Counter rejectedJobs;
+    private final String jobCompletionTopic;
+
+    public KafkaJobRunner(
+            StreamBridge streamBridge,
+            ObjectProvider<BindingsLifecycleController> bindingsLifecycleController,
+            MeterRegistry meterRegistry,
+            @Value("${spring.cloud.stream.kafka.job.thread-pool-size:10}") int threadPoolSize,
+            @Value("${spring.cloud.stream.kafka.job.thread-name-prefix:kafka-job-}") String threadNamePrefix,
+            @Value("${spring.cloud.stream.kafka.job.queue-capacity:150}") int queueCapacity,
+            @Value("${spring.cloud.stream.kafka.job.resume-threshold:50}") int resumeThreshold,
+            @Value("${spring.cloud.stream.kafka.job.binding-name:kafkaConsumer-in-0}") String bindingName,
+            @Value("${spring.cloud.stream.kafka.job.completion-topic:job-completion}") String jobCompletionTopic,
+            @Value("${spring.cloud.stream.kafka.job.lanes:16}") int laneCount,
+            @Value("${spring.cloud.stream.kafka.job.mode:platform}") String mode,
+            @Value("${spring.cloud.stream.kafka.job.max-concurrency:${spring.datasource.hikari.maximum-pool-size:10}}") int maxConcurrency) {
+        this.streamBridge = streamBridge;
+        this.bindingsLifecycleController = bindingsLifecycleController;
+        this.bindingName = bindingName;
+        this.resumeThreshold = Math.min(resumeThreshold, queueCapacity);
+        this.jobCompletionTopic = jobCompletionTopic;
+        this.rejectedJobs = Counter.builder("kafka.job.rejected")
+                .description("Kafka jobs that did not fit in the queue and ran on the submitting thread")
+                .register(meterRegistry);
+        this.executorService = new ThreadPoolExecutor(
+                threadPoolSize,
+                threadPoolSize,
+                0L,
+                TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                new KafkaThreadFactory(threadNamePrefix),
+                (job, executor) -> {
+                    rejectedJobs.increment();
+                    if (!executor.isShutdown()) {
+                        job.run();
+                    }
+                }) {
+            @Override
+            protected void afterExecute(Runnable r, Throwable t) {
+                super.afterExecute(r, t);
+                resumeIfDrained();
+            }
+        };
+        this.queueCapacity = queueCapacity;
+        this.mode = resolveMode(mode);
+        this.maxConcurrency = maxConcurrency;
+        // fair, so that the jobs waiting for a permit start in submission order
+        this.permits = new Semaphore(maxConcurrency, true);
+        if (this.mode == Mode.VIRTUAL) {
+            this.virtualExecutor = new SimpleAsyncTaskExecutor(threadNamePrefix);
+            this.virtualExecutor.setVirtualThreads(true);
+            this.virtualExecutor.setTaskTerminationTimeout(TimeUnit.SECONDS.toMillis(60));
+        } else {
+            this.virtualExecutor = null;
+        }
+        this.lanes = new KeyedLaneExecutor(laneCount, this::execute, this::resumeIfDrained);
+        Gauge.builder("kafka.job.queue.depth", this, KafkaJobRunner::getQueuedJobs)
+                .description("Kafka jobs waiting for a worker")
+                .register(meterRegistry);
+        Gauge.builder("kafka.job.active", this, KafkaJobRunner::getActiveJobs)
+                .description("Kafka jobs currently running")
+                .register(meterRegistry);
+        Gauge.builder("kafka.job.paused", paused, p -> p.get() ? 1 : 0)
+                .description("Whether the consumer binding is paused because the job queue is full")
+                .register(meterRegistry);
+        if (this.mode == Mode.VIRTUAL) {
+            log.info("Initialized KafkaJobRunner with virtual threads, max concurrency: {}, queue capacity: {}",
+                    maxConcurrency, queueCapacity);
+        } else {
+            log.info("Initialized KafkaJobRunner with thread pool size: {}, max concurrency: {}, queue capacity: {}",
+                    threadPoolSize, maxConcurrency, queueCapacity);
+        }
+    }
 
-    @Value("${spring.cloud.stream.kafka.job.thread-pool-size:10}")
-    private int threadPoolSize;
+    private static Mode resolveMode(String mode) {
+        Mode resolved = Mode.valueOf(mode.trim().toUpperCase(Locale.ROOT));
+        if (resolved == Mode.VIRTUAL && Runtime.version().feature() < 21) {
+            log.warn("Virtual threads need Java 21+, running Kafka jobs on the platform thread pool");
+            return Mode.PLATFORM;
+        }
+        return resolved;
+    }
 
-    @Value("${spring.cloud.stream.kafka.job.thread-name-prefix:kafka-job-}")
-    private String threadNamePrefix;
+    public Mode getMode() {
+        return mode;
+    }
 
-    @Value("${spring.cloud.stream.kafka.job.completion-topic:job-completion}")
-    private String jobCompletionTopic;
+    /**
+     * @return the number of jobs waiting for a worker or a permit.
+     */
+    public int getQueuedJobs() {
+        return executorService.getQueue().size() + permits.getQueueLength()
+                + Math.max(0, lanes.getBacklog() - getActiveJobs());
+    }
 
-    public KafkaJobRunner(StreamBridge streamBridge) {
-        this.streamBridge = streamBridge;
-        this.executorService = Executors.newFixedThreadPool(10, new KafkaThreadFactory(threadNamePrefix));
-        log.info("Initialized KafkaJobRunner with thread pool size: {}", threadPoolSize);
+    /**
+     * @return the number of jobs currently running.
+     */
+    public int getActiveJobs() {
+        return maxConcurrency - permits.availablePermits();
     }
 
     /**
@@ -55,7 +191,33 @@ public class KafkaJobRunner {
      */
     public void submitJob(String jobId, String eventName, ReelDTO payload, Runnable task) {
         log.debug("Submitting job {} for event {}", jobId, eventName);
-        executorService.submit(() -> {
+        execute(job(jobId, eventName, task));
+    }
+
+    /**
+     * Submit a job that must run after the jobs previously submitted with the
+     * same ordering key.
+     *
+     * @param orderingKey key of the lane, jobs without a key share one lane
+     * @param jobId       unique identifier for the job
+     * @param eventName   name of the event being processed
+     * @param task        the task to execute
+     */
+    public void submitOrderedJob(String orderingKey, String jobId, String eventName, Runnable task) {
+        log.debug("Submitting job {} for event {} on the lane of key {}", jobId, eventName, orderingKey);
+        lanes.execute(orderingKey, job(jobId, eventName, task));
+        pauseIfFull();
+    }
+
+    private Runnable job(String jobId, String eventName, Runnable task) {
+        return () -> {
+            try {
+                permits.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                log.warn("Job {} for event {} interrupted while waiting to run", jobId, eventName);
+                return;
+            }
             try {
                 log.debug("Starting job {} for event {}", jobId, eventName);
                 task.run();
@@ -68,8 +230,63 @@ public class KafkaJobRunner {
 
                 // Send failure notification
                 notifyJobCompletion(jobId, eventName, false, e.getMessage());
+            } finally {
+                permits.release();
             }
-        });
+        };
+    }
+
+    private void execute(Runnable job) {
+        if (mode == Mode.VIRTUAL) {
+            try {
+                virtualExecutor.execute(() -> {
+                    try {
+                        job.run();
+                    } finally {
+                        resumeIfDrained();
+                    }
+                });
+            } catch (RuntimeException e) {
+                rejectedJobs.increment();
+                throw e;
+            }
+        } else {
+            executorService.execute(job);
+        }
+        pauseIfFull();
+    }
+
+    private void pauseIfFull() {
+        boolean full = executorService.getQueue().remainingCapacity() == 0
+                || permits.getQueueLength() >= queueCapacity
+                || lanes.getBacklog() >= queueCapacity;
+        if (full && paused.compareAndSet(false, true)) {
+            log.info("Kafka job queue is full, pausing binding {}", bindingName);
+            changeBindingState(BindingsLifecycleController.State.PAUSED);
+        }
+    }
+
+    private void resumeIfDrained() {
+        boolean drained = executorService.getQueue().size() <= resumeThreshold
+                && permits.getQueueLength() <= resumeThreshold
+                && lanes.getBacklog() <= resumeThreshold;
+        if (drained && paused.compareAndSet(true, false)) {
+            log.info("Kafka job queue drained below {}, resuming binding {}", resumeThreshold, bindingName);
+            changeBindingState(BindingsLifecycleController.State.RESUMED);
+        }
+    }
+
+    private void changeBindingState(BindingsLifecycleController.State state) {
+        BindingsLifecycleController controller = bindingsLifecycleController.getIfAvailable();
+        if (controller == null) {
+            log.warn("No bindings lifecycle controller available, cannot change binding {} to {}", bindingName, state);
+            return;
+        }
+        try {
+            controller.changeState(bindingName, state);
+        } catch (Exception e) {
+            log.error("Failed to change binding {} to {}: {}", bindingName, state, e.getMessage());
+        }
     }
 
     /**
@@ -84,6 +301,19 @@ public class KafkaJobRunner {
         submitJob(key, eventName, event.getPayload(), task);
     }
 
+    /**
+     * Submit a job for processing an EventEnvelope, in order with the other
+     * events of the same ordering key.
+     *
+     * @param event       the Kafka event to process
+     * @param key         the Kafka message key
+     * @param orderingKey the key whose events must be processed in order
+     * @param task        the task to execute with the event
+     */
+    public void submitOrderedEventJob(EventEnvelope event, String key, String orderingKey, Runnable task) {
+        submitOrderedJob(orderingKey, key, event.getEventName(), task);
+    }
+
     /**
      * Send job completion notification to Kafka
      */
@@ -200,6 +430,10 @@ public class KafkaJobRunner {
     @PreDestroy
     public void shutdown() {
         log.info("Shutting down KafkaJobRunner");
+        if (virtualExecutor != null) {
+            // waits for the running jobs up to the task termination timeout
+            virtualExecutor.close();
+        }
         executorService.shutdown();
         try {
             if (!executorService.awaitTermination(60, TimeUnit.SECONDS)) {
@@ -0,0 +1,168 @@
+package com.f4.reel.kafka.runner;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Runs tasks on a fixed number of serial lanes on top of a shared executor.
+ * <p>
+ * A task is routed to a lane by the hash of its key, so tasks sharing a key run
+ * one after the other in submission order, while tasks of different lanes run in
+ * parallel on the delegate executor. Each lane has at most one task handed to the
+ * delegate at a time; the others wait in the lane.
+ * <p>
+ * The optional {@code afterTask} callback runs after each task, once it no longer
+ * counts in the {@link #getBacklog() backlog}.
+ * <p>
+ * When the delegate rejects the next task of a lane, that task and the ones
+ * behind it stay queued in order, and the lane starts again from the next task
+ * submitted to it. Nothing is dropped, so nothing is acknowledged past them.
+ * <p>
+ * A delegate may also run a task in the calling thread instead of rejecting it,
+ * as a caller-runs policy does when its queue is full. The thread that finished
+ * the previous task of the lane then runs the following ones in a loop, for as
+ * long as the delegate keeps handing them back.
+ */
+public class KeyedLaneExecutor {
+
+    private static final Logger log = LoggerFactory.getLogger(KeyedLaneExecutor.class);
+
+    private final Lane[] lanes;
+    private final Executor delegate;
+    private final Runnable afterTask;
+    private final AtomicInteger backlog = new AtomicInteger();
+
+    public KeyedLaneExecutor(int laneCount, Executor delegate) {
+        this(laneCount, delegate, () -> {});
+    }
+
+    public KeyedLaneExecutor(int laneCount, Executor delegate, Runnable afterTask) {
+        if (laneCount < 1) {
+            throw new IllegalArgumentException("laneCount must be at least 1");
+        }
+        this.delegate = delegate;
+        this.afterTask = afterTask;
+        this.lanes = new Lane[laneCount];
+        for (int i = 0; i < laneCount; i++) {
+            lanes[i] = new Lane();
+        }
+    }
+
+    /**
+     * Queue the task on the lane of the given key.
+     *
+     * @param key  the ordering key, tasks without a key all share lane 0.
+     * @param task the task to run.
+     */
+    public void execute(String key, Runnable task) {
+        backlog.incrementAndGet();
+        lanes[laneOf(key)].add(task);
+    }
+
+    /**
+     * @return the number of tasks queued or running on any lane.
+     */
+    public int getBacklog() {
+        return backlog.get();
+    }
+
+    public int getLaneCount() {
+        return lanes.length;
+    }
+
+    int laneOf(String key) {
+        return key == null ? 0 : Math.floorMod(key.hashCode(), lanes.length);
+    }
+
+    private final class Lane {
+
+        private final Deque<Runnable> tasks = new ArrayDeque<>();
+        private boolean running;
+
+        void add(Runnable task) {
+            synchronized (this) {
+                tasks.add(task);
+                if (running) {
+                    return;
+                }
+                running = true;
+            }
+            runNext();
+        }
+
+        // called outside the lane lock, the delegate may block or run the task inline
+        private void runNext() {
+            Runnable next;
+            while ((next = poll()) != null) {
+                HandOff handOff = new HandOff(next);
+                try {
+                    delegate.execute(handOff);
+                } catch (RuntimeException e) {
+                    int queued;
+                    synchronized (this) {
+                        tasks.addFirst(next);
+                        running = false;
+                        queued = tasks.size();
+                    }
+                    // not rethrown: this may be the end of another task, whose caller has nothing to do with it
+                    log.error("Could not schedule the next task of a lane, {} tasks stay queued until the next submission to the lane: {}",
+                            queued, e.toString());
+                    return;
+                } finally {
+                    handOff.handingOff = false;
+                }
+                if (!handOff.ranInline) {
+                    // the thread running it hands over the task after it
+                    return;
+                }
+            }
+        }
+
+        private Runnable poll() {
+            synchronized (this) {
+                Runnable next = tasks.poll();
+                if (next == null) {
+                    running = false;
+                }
+                return next;
+            }
+        }
+
+        /**
+         * A task handed to the delegate, which hands over the next task of the lane once done, unless the delegate
+         * ran it inline: the loop that handed it over then goes on instead, so the stack does not grow with the
+         * backlog of the lane.
+         */
+        private final class HandOff implements Runnable {
+
+            private final Runnable task;
+            private final Thread caller = Thread.currentThread();
+            private volatile boolean handingOff = true;
+            private boolean ranInline;
+
+            HandOff(Runnable task) {
+                this.task = task;
+            }
+
+            @Override
+            public void run() {
+                boolean inline = handingOff && Thread.currentThread() == caller;
+                try {
+                    task.run();
+                } finally {
+                    backlog.decrementAndGet();
+                    afterTask.run();
+                }
+                if (inline) {
+                    ranInline = true;
+                } else {
+                    runNext();
+                }
+            }
+        }
+    }
+}
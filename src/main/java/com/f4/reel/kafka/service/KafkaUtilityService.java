@@ -4,23 +4,23 @@ import com.f4.reel.avro.EventEnvelope;
 import com.f4.reel.service.dto.ReelDTO;
 import com.f4.reel.kafka.handler.EventDispatcher;
 import com.f4.reel.kafka.runner.KafkaJobRunner;
+import com.f4.reel.kafka.sse.SseBroadcaster;
 import com.f4.reel.kafka.util.AvroConverter;
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cloud.stream.function.StreamBridge;
-import org.springframework.http.MediaType;
+import org.springframework.kafka.support.Acknowledgment;
 import org.springframework.retry.support.RetryTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
-import java.io.IOException;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.UUID;
 import java.util.concurrent.atomic.AtomicReference;
 
@@ -31,10 +31,9 @@ public class KafkaUtilityService {
     private static final Logger CONSUMER_LOG = LoggerFactory.getLogger("KafkaConsumerHelper");
     private final KafkaJobRunner jobRunner;
     private final StreamBridge streamBridge;
-    private final ObjectMapper objectMapper;
     private final RetryTemplate retryTemplate;
     private final EventDispatcher dispatcher;
-    private final Map<String, SseEmitter> emitters;
+    private final SseBroadcaster sseBroadcaster;
     @Value("${ssh.service-name}-input.dlq")
     private String dlqTopic;
 
@@ -43,14 +42,12 @@ public class KafkaUtilityService {
 
     @Autowired
     public KafkaUtilityService(StreamBridge streamBridge, KafkaJobRunner jobRunner, RetryTemplate retryTemplate,
-            EventDispatcher dispatcher, Map<String, SseEmitter> emitters) {
+            EventDispatcher dispatcher, SseBroadcaster sseBroadcaster) {
         this.jobRunner = jobRunner;
         this.streamBridge = streamBridge;
-        this.objectMapper = new ObjectMapper();
-        this.objectMapper.registerModule(new JavaTimeModule());
         this.retryTemplate = retryTemplate;
         this.dispatcher = dispatcher;
-        this.emitters = emitters;
+        this.sseBroadcaster = sseBroadcaster;
     }
 
     // --- Helper for KafkaProducer ---
@@ -81,6 +78,31 @@ public class KafkaUtilityService {
         jobRunner.submitEventJob(avroMessage, keyStr, () -> consumeAndProcessMessage(avroMessage));
     }
 
+    /**
+     * Process the event after the previous events of the same user (or, without
+     * a user, of the same message key), then acknowledge it. Failed events are
+     * acknowledged too, once they went to the DLQ.
+     */
+    public void submitOrderedEventJob(EventEnvelope avroMessage, String keyStr, Acknowledgment acknowledgment) {
+        jobRunner.submitOrderedEventJob(avroMessage, keyStr, consumer_orderingKey(avroMessage, keyStr), () -> {
+            try {
+                consumeAndProcessMessage(avroMessage);
+            } finally {
+                if (acknowledgment != null) {
+                    acknowledgment.acknowledge();
+                }
+            }
+        });
+    }
+
+    public String consumer_orderingKey(EventEnvelope avroMessage, String keyStr) {
+        com.f4.reel.avro.ReelDTO payload = avroMessage.getPayload();
+        if (payload != null && payload.getUserId() != null) {
+            return payload.getUserId().toString();
+        }
+        return keyStr;
+    }
+
     public void consumeAndProcessMessage(EventEnvelope avroMessage) {
         try {
             retryTemplate.execute(context -> {
@@ -94,28 +116,17 @@ public class KafkaUtilityService {
                     }
 
                     if (avroMessage.getPayload() != null) {
-                        // Map Avro DTO to Service DTO
-                        serviceReelDTO = consumer_mapAvroToServiceReelDTO(avroMessage.getPayload());
-
-                        if (serviceReelDTO != null) {
-                            // Prepare envelope for dispatcher
-                            com.f4.reel.kafka.handler.EventEnvelope<JsonNode> envelopeForDispatcher = consumer_prepareEventEnvelopeForDispatcher(
-                                    eventName, serviceReelDTO);
-                            if (envelopeForDispatcher != null) {
-                                dispatcher.dispatch(envelopeForDispatcher);
-                            } else {
-                                CONSUMER_LOG.warn("Envelope for dispatcher was null after preparation for event: {}",
-                                        eventName);
-                            }
-                        } else {
-                            CONSUMER_LOG.warn("Service ReelDTO was null after mapping for event: {}", eventName);
+                        // The handler maps the Avro payload straight to its own DTO
+                        Object handled = dispatcher.dispatch(eventName, avroMessage.getPayload());
+                        if (handled instanceof ReelDTO handledReelDTO) {
+                            serviceReelDTO = handledReelDTO;
                         }
                     } else {
                         CONSUMER_LOG.warn("Unsupported event type or missing payload: {}", eventName);
                     }
 
                     // SSE dispatch
-                    consumer_dispatchToSseClients(eventName, serviceReelDTO, emitters);
+                    consumer_dispatchToSseClients(eventName, serviceReelDTO);
 
                     CONSUMER_LOG.info("Successfully processed Avro message for event: {}", eventName);
 
@@ -151,27 +162,75 @@ public class KafkaUtilityService {
         }
     }
 
-    // existing helper methods: consumer_mapAvroToServiceReelDTO,
-    // consumer_prepareEventEnvelopeForDispatcher, consumer_dispatchToSseClients,
-    // consumer_sendToDlq etc.
+    /**
+     * Process a polled batch on the calling thread. Consecutive events of the
+     * same name are dispatched together, so that their handler can persist
+     * them in one transaction; if that fails, they are processed one by one
+     * with the usual retries and DLQ.
+     */
+    public void consumeBatch(List<EventEnvelope> avroMessages) {
+        int start = 0;
+        while (start < avroMessages.size()) {
+            String eventName = avroMessages.get(start).getEventName();
+            int end = start + 1;
+            while (end < avroMessages.size() && Objects.equals(eventName, avroMessages.get(end).getEventName())) {
+                end++;
+            }
+            List<EventEnvelope> run = avroMessages.subList(start, end);
+            if (run.size() == 1 || eventName == null) {
+                run.forEach(this::consumeQuietly);
+            } else {
+                consumeRun(eventName, run);
+            }
+            start = end;
+        }
+    }
 
-    public SseEmitter consumer_registerSseEmitter(String key, Map<String, SseEmitter> emittersMap) {
+    private void consumeRun(String eventName, List<EventEnvelope> run) {
+        List<com.f4.reel.avro.ReelDTO> payloads = new ArrayList<>(run.size());
+        for (EventEnvelope avroMessage : run) {
+            if (avroMessage.getPayload() == null) {
+                CONSUMER_LOG.warn("Unsupported event type or missing payload: {}", eventName);
+                continue;
+            }
+            payloads.add(avroMessage.getPayload());
+        }
+        List<Object> handled;
+        try {
+            handled = retryTemplate.execute(context -> dispatcher.dispatchAll(eventName, payloads));
+        } catch (Exception e) {
+            CONSUMER_LOG.warn("Batch of {} {} events failed, processing them one by one: {}", run.size(), eventName,
+                    e.getMessage());
+            run.forEach(this::consumeQuietly);
+            return;
+        }
+
+        for (Object dto : handled) {
+            if (dto instanceof ReelDTO serviceReelDTO) {
+                consumer_dispatchToSseClients(eventName, serviceReelDTO);
+            }
+        }
+        CONSUMER_LOG.info("Successfully processed a batch of {} Avro messages for event: {}", run.size(), eventName);
+        streamBridge.send("reel-processing-complete",
+                "Completed processing for " + run.size() + " events " + eventName + " with ID " + UUID.randomUUID());
+    }
+
+    private void consumeQuietly(EventEnvelope avroMessage) {
+        try {
+            consumeAndProcessMessage(avroMessage);
+        } catch (RuntimeException e) {
+            // already logged and sent to the DLQ, carry on with the rest of the batch
+        }
+    }
+
+    public SseEmitter consumer_registerSseEmitter(String key) {
         CONSUMER_LOG.debug("Helper: Registering sse client for {}", key);
-        SseEmitter emitter = new SseEmitter();
-        emitter.onCompletion(() -> {
-            CONSUMER_LOG.debug("Helper: SSE Emitter completed for key {}. Removing from map.", key);
-            emittersMap.remove(key);
-        });
-        emittersMap.put(key, emitter);
-        return emitter;
+        return sseBroadcaster.subscribe(key);
     }
 
-    public void consumer_unregisterSseEmitter(String key, Map<String, SseEmitter> emittersMap) {
+    public void consumer_unregisterSseEmitter(String key) {
         CONSUMER_LOG.debug("Helper: Unregistering sse emitter for: {}", key);
-        SseEmitter emitter = emittersMap.get(key);
-        if (emitter != null) {
-            emitter.complete();
-        } else {
+        if (!sseBroadcaster.unsubscribe(key)) {
             CONSUMER_LOG.warn("Helper: No SSE emitter found for key {} to unregister.", key);
         }
     }
@@ -199,22 +258,11 @@ public class KafkaUtilityService {
         }
     }
 
-    public void consumer_dispatchToSseClients(String eventName, ReelDTO reelDTO, Map<String, SseEmitter> emittersMap) {
-        CONSUMER_LOG.debug("Helper: Dispatching event {} to {} SSE clients using Service DTO", eventName,
-                emittersMap.size());
-        emittersMap.forEach((key, emitter) -> {
-            try {
-                emitter.send(
-                        SseEmitter.event()
-                                .name(eventName)
-                                .data(reelDTO != null ? reelDTO : "No payload", MediaType.APPLICATION_JSON));
-                CONSUMER_LOG.trace("Helper: Successfully sent event {} to SSE client with key {}", eventName, key);
-            } catch (IOException | IllegalStateException ex) {
-                CONSUMER_LOG.debug("Helper: Failed to send to SSE client with key {}, removing emitter. Error: {}", key,
-                        ex.getMessage());
-                // emitter.complete(); // Let onCompletion handler remove it
-            }
-        });
+    public void consumer_dispatchToSseClients(String eventName, ReelDTO reelDTO) {
+        CONSUMER_LOG.debug("Helper: Broadcasting event {} to {} SSE clients using Service DTO", eventName,
+                sseBroadcaster.getSubscriberCount());
+        // serialized once, then written by the broadcaster's own threads
+        sseBroadcaster.broadcast(eventName, reelDTO != null ? reelDTO : "No payload");
     }
 
     // consumer_mapAvroToServiceReelDTO now delegates to AvroConverter
@@ -234,30 +282,4 @@ public class KafkaUtilityService {
         }
     }
 
-    // New helper method to prepare the EventEnvelope for the old dispatcher
-    public com.f4.reel.kafka.handler.EventEnvelope<JsonNode> consumer_prepareEventEnvelopeForDispatcher(
-            String eventName, ReelDTO serviceDto) {
-        if (serviceDto == null) {
-            CONSUMER_LOG.warn("Helper: ServiceDTO is null, cannot prepare EventEnvelope for dispatcher for event: {}",
-                    eventName);
-            // Depending on requirements, might return an envelope with null payload or
-            // throw an error
-            // For now, let's return an envelope that might signify no data or an issue.
-            // Or, the calling method should handle the null DTO before calling this.
-            return new com.f4.reel.kafka.handler.EventEnvelope<>(eventName, null);
-        }
-        try {
-            String reelJson = objectMapper.writeValueAsString(serviceDto); // Uses objectMapper from KafkaUtilityService
-            JsonNode reelJsonNode = objectMapper.readTree(reelJson);
-            return new com.f4.reel.kafka.handler.EventEnvelope<>(eventName, reelJsonNode);
-        } catch (com.fasterxml.jackson.core.JsonProcessingException e) {
-            CONSUMER_LOG.error("Helper: Error serializing/deserializing service DTO for dispatcher: {}", e.getMessage(),
-                    e);
-            throw new RuntimeException("Helper: Failed to prepare EventEnvelope for dispatcher", e);
-        }
-    }
-
-    public Map<String, SseEmitter> getEmitters() {
-        return emitters;
-    }
 }
\ No newline at end of file
@@ -0,0 +1,364 @@
+package com.f4.reel.kafka.sse;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import jakarta.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.f4.reel.config.ApplicationProperties;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Broadcasts events to the SSE subscribers without ever blocking the publisher.
+ * <p>
+ * An event is serialized once into an SSE frame shared by every subscriber.
+ * Subscribers are spread over shards, each with a fan-out thread that appends
+ * the frame to the bounded buffer of its subscribers. A small pool of writer
+ * threads drains the buffers into the connections, one subscriber at a time,
+ * so a slow client only ever fills its own buffer: the oldest frames are then
+ * dropped or the client is disconnected, depending on the overflow policy.
+ * A writer sends a bounded number of frames to a subscriber before moving on,
+ * and a write blocked for longer than the write timeout, by a client that
+ * stopped reading, disconnects the subscriber, so that a few stalled clients
+ * cannot hold every writer. Heartbeat comments are broadcast periodically,
+ * and subscribers are removed on completion, timeout or any write error.
+ */
+@Component
+public class SseBroadcaster {
+
+    private static final Logger log = LoggerFactory.getLogger(SseBroadcaster.class);
+
+    private static final Set<DataWithMediaType> HEARTBEAT = SseEmitter.event().comment("heartbeat").build();
+
+    private final ObjectMapper objectMapper;
+    private final ApplicationProperties.Sse properties;
+    private final Shard[] shards;
+    private final ExecutorService writers;
+    private final ScheduledExecutorService heartbeat;
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+    private final Counter droppedFrames;
+    private final Counter disconnectedSubscribers;
+
+    public SseBroadcaster(ObjectMapper objectMapper, ApplicationProperties applicationProperties,
+            MeterRegistry meterRegistry) {
+        this.objectMapper = objectMapper;
+        this.properties = applicationProperties.getSse();
+        this.writers = Executors.newFixedThreadPool(properties.getWriterThreads(), new DaemonThreadFactory("sse-writer-"));
+        this.shards = new Shard[properties.getShards()];
+        ThreadFactory fanOutThreads = new DaemonThreadFactory("sse-fan-out-");
+        for (int i = 0; i < shards.length; i++) {
+            shards[i] = new Shard(properties.getShardQueueCapacity());
+            fanOutThreads.newThread(shards[i]::fanOut).start();
+        }
+        this.heartbeat = Executors.newSingleThreadScheduledExecutor(new DaemonThreadFactory("sse-heartbeat-"));
+        long interval = properties.getHeartbeatInterval().toMillis();
+        heartbeat.scheduleAtFixedRate(() -> broadcast(HEARTBEAT), interval, interval, TimeUnit.MILLISECONDS);
+        long checkInterval = Math.max(1, properties.getWriteTimeout().toMillis() / 2);
+        heartbeat.scheduleAtFixedRate(this::disconnectStuckWrites, checkInterval, checkInterval, TimeUnit.MILLISECONDS);
+
+        Gauge.builder("sse.subscribers", subscriberCount, AtomicInteger::get)
+                .description("Connected SSE subscribers")
+                .register(meterRegistry);
+        this.droppedFrames = Counter.builder("sse.frames.dropped")
+                .description("SSE frames dropped because a subscriber or a shard could not keep up")
+                .register(meterRegistry);
+        this.disconnectedSubscribers = Counter.builder("sse.subscribers.disconnected")
+                .description("SSE subscribers disconnected because they could not keep up or a write was stuck")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Register a subscriber, replacing any previous subscriber with the same key.
+     *
+     * @param key the subscriber key
+     * @return the emitter to return from the controller
+     */
+    public SseEmitter subscribe(String key) {
+        SseEmitter emitter = new SseEmitter(properties.getTimeout().toMillis());
+        Shard shard = shardOf(key);
+        Subscriber subscriber = new Subscriber(key, emitter, shard);
+        emitter.onCompletion(() -> remove(shard, subscriber));
+        emitter.onTimeout(() -> remove(shard, subscriber));
+        emitter.onError(e -> remove(shard, subscriber));
+        Subscriber previous = shard.subscribers.put(key, subscriber);
+        if (previous != null) {
+            previous.close();
+        } else {
+            subscriberCount.incrementAndGet();
+        }
+        log.debug("Registered SSE subscriber {}", key);
+        return emitter;
+    }
+
+    /**
+     * Complete the subscription of the given key, if any.
+     *
+     * @param key the subscriber key
+     * @return whether there was such a subscriber
+     */
+    public boolean unsubscribe(String key) {
+        Subscriber subscriber = shardOf(key).subscribers.get(key);
+        if (subscriber == null) {
+            return false;
+        }
+        subscriber.close();
+        return true;
+    }
+
+    /**
+     * Broadcast an event to every subscriber. Never blocks: if a shard cannot
+     * keep up, the event is dropped for that shard.
+     *
+     * @param eventName the SSE event name
+     * @param payload   the payload, serialized as JSON
+     */
+    public void broadcast(String eventName, Object payload) {
+        byte[] json;
+        try {
+            json = objectMapper.writeValueAsBytes(payload);
+        } catch (JsonProcessingException e) {
+            log.error("Could not serialize SSE event {}: {}", eventName, e.getMessage());
+            return;
+        }
+        broadcast(SseEmitter.event().name(eventName).data(json, MediaType.APPLICATION_JSON).build());
+    }
+
+    private void broadcast(Set<DataWithMediaType> frame) {
+        for (Shard shard : shards) {
+            if (!shard.inbox.offer(frame)) {
+                droppedFrames.increment();
+            }
+        }
+    }
+
+    /**
+     * @return the number of connected subscribers
+     */
+    public int getSubscriberCount() {
+        return subscriberCount.get();
+    }
+
+    private Shard shardOf(String key) {
+        return shards[Math.floorMod(key.hashCode(), shards.length)];
+    }
+
+    private void disconnectStuckWrites() {
+        long now = System.nanoTime();
+        for (Shard shard : shards) {
+            shard.subscribers.values().forEach(subscriber -> subscriber.disconnectIfStuck(now));
+        }
+    }
+
+    private void remove(Shard shard, Subscriber subscriber) {
+        if (shard.subscribers.remove(subscriber.key, subscriber)) {
+            subscriberCount.decrementAndGet();
+            log.debug("Removed SSE subscriber {}", subscriber.key);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        heartbeat.shutdownNow();
+        for (Shard shard : shards) {
+            shard.running = false;
+            shard.subscribers.values().forEach(Subscriber::close);
+        }
+        writers.shutdownNow();
+    }
+
+    private final class Shard {
+
+        private final Map<String, Subscriber> subscribers = new ConcurrentHashMap<>();
+        private final BlockingQueue<Set<DataWithMediaType>> inbox;
+        private volatile boolean running = true;
+
+        Shard(int capacity) {
+            this.inbox = new ArrayBlockingQueue<>(capacity);
+        }
+
+        void fanOut() {
+            while (running) {
+                try {
+                    Set<DataWithMediaType> frame = inbox.poll(1, TimeUnit.SECONDS);
+                    if (frame != null) {
+                        subscribers.values().forEach(subscriber -> subscriber.offer(frame));
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                } catch (RuntimeException e) {
+                    log.warn("SSE fan-out failed: {}", e.getMessage());
+                }
+            }
+        }
+    }
+
+    private final class Subscriber {
+
+        private final String key;
+        private final SseEmitter emitter;
+        private final Shard shard;
+        private final ArrayDeque<Set<DataWithMediaType>> buffer = new ArrayDeque<>();
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private final Object writeLock = new Object();
+        private Thread writer;
+        private long writeStartedAt;
+        private volatile boolean closed;
+
+        Subscriber(String key, SseEmitter emitter, Shard shard) {
+            this.key = key;
+            this.emitter = emitter;
+            this.shard = shard;
+        }
+
+        void offer(Set<DataWithMediaType> frame) {
+            if (closed) {
+                return;
+            }
+            synchronized (buffer) {
+                if (buffer.size() >= properties.getBufferSize()) {
+                    droppedFrames.increment();
+                    if (properties.getOverflowPolicy() == ApplicationProperties.Sse.OverflowPolicy.DISCONNECT) {
+                        disconnectedSubscribers.increment();
+                        buffer.clear();
+                        close();
+                        return;
+                    }
+                    buffer.poll();
+                }
+                buffer.add(frame);
+            }
+            schedule();
+        }
+
+        private void schedule() {
+            if (scheduled.compareAndSet(false, true)) {
+                try {
+                    writers.execute(this::drain);
+                } catch (RuntimeException e) {
+                    // the writers are shut down
+                    scheduled.set(false);
+                }
+            }
+        }
+
+        private void drain() {
+            try {
+                Set<DataWithMediaType> frame;
+                int sent = 0;
+                // bounded, so that the other subscribers get their turn on the writers
+                while (!closed && sent < properties.getMaxFramesPerDrain() && (frame = next()) != null) {
+                    send(frame);
+                    sent++;
+                }
+            } catch (IOException | RuntimeException e) {
+                log.debug("Failed to send to SSE subscriber {}, removing it: {}", key, e.getMessage());
+                closed = true;
+                remove(shard, this);
+                emitter.completeWithError(e);
+                return;
+            } finally {
+                scheduled.set(false);
+            }
+            // frames left over by the bound, or buffered after the last poll but before the flag was cleared
+            boolean pending;
+            synchronized (buffer) {
+                pending = !buffer.isEmpty();
+            }
+            if (pending && !closed) {
+                schedule();
+            }
+        }
+
+        private void send(Set<DataWithMediaType> frame) throws IOException {
+            synchronized (writeLock) {
+                writer = Thread.currentThread();
+                writeStartedAt = System.nanoTime();
+            }
+            try {
+                emitter.send(frame);
+            } finally {
+                synchronized (writeLock) {
+                    writer = null;
+                }
+                // an interrupt aimed at this write must not reach the next subscriber served by the thread
+                Thread.interrupted();
+            }
+        }
+
+        /**
+         * Disconnect the subscriber if a write has been blocked for longer than the write timeout, interrupting
+         * the writer in case the container's write honours it.
+         */
+        void disconnectIfStuck(long now) {
+            synchronized (writeLock) {
+                if (writer == null || now - writeStartedAt < properties.getWriteTimeout().toNanos()) {
+                    return;
+                }
+                writer.interrupt();
+            }
+            if (!closed) {
+                log.debug("Write to SSE subscriber {} is stuck, disconnecting it", key);
+                closed = true;
+                disconnectedSubscribers.increment();
+                remove(shard, this);
+                emitter.completeWithError(new IOException("SSE write timed out"));
+            }
+        }
+
+        private Set<DataWithMediaType> next() {
+            synchronized (buffer) {
+                return buffer.poll();
+            }
+        }
+
+        void close() {
+            if (!closed) {
+                closed = true;
+                remove(shard, this);
+                emitter.complete();
+            }
+        }
+    }
+
+    private static class DaemonThreadFactory implements ThreadFactory {
+
+        private final AtomicInteger threadNumber = new AtomicInteger(1);
+        private final String namePrefix;
+
+        DaemonThreadFactory(String namePrefix) {
+            this.namePrefix = namePrefix;
+        }
+
+        @Override
+        public Thread newThread(Runnable r) {
+            Thread thread = new Thread(r, namePrefix + threadNumber.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.f4.reel.repository;
+
+import com.f4.reel.domain.ReelOutboxDeadLetter;
+import org.springframework.data.jpa.repository.*;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Spring Data JPA repository for the ReelOutboxDeadLetter entity.
+ */
+@Repository
+public interface ReelOutboxDeadLetterRepository extends JpaRepository<ReelOutboxDeadLetter, Long> {}
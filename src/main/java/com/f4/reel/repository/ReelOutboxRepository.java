@@ -0,0 +1,32 @@
+package com.f4.reel.repository;
+
+import com.f4.reel.domain.ReelOutboxEvent;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import java.time.Instant;
+import java.util.List;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Spring Data JPA repository for the ReelOutboxEvent entity.
+ */
+@Repository
+public interface ReelOutboxRepository extends JpaRepository<ReelOutboxEvent, Long> {
+    /**
+     * Lock the oldest events due at the given time, skipping the ones already locked by another relay. The events
+     * waiting to be retried hold back the later events of their reel, so the events of a reel are relayed in order.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query(
+        "select event from ReelOutboxEvent event" +
+        " where (event.nextAttemptAt is null or event.nextAttemptAt <= :now)" +
+        " and not exists (select earlier.id from ReelOutboxEvent earlier" +
+        " where earlier.aggregateId = event.aggregateId and earlier.id < event.id and earlier.nextAttemptAt > :now)" +
+        " order by event.id"
+    )
+    List<ReelOutboxEvent> findNextBatchForUpdate(@Param("now") Instant now, Pageable pageable);
+}
@@ -1,8 +1,12 @@
 package com.f4.reel.repository;
 
 import com.f4.reel.domain.Reel;
+import java.time.Instant;
 import java.util.UUID;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 /**
@@ -10,4 +14,48 @@ import org.springframework.stereotype.Repository;
  */
 @SuppressWarnings("unused")
 @Repository
-public interface ReelRepository extends JpaRepository<Reel, UUID> {}
+public interface ReelRepository extends JpaRepository<Reel, UUID> {
+    /**
+     * First page of the keyset scroll, newest reels first. Returns a {@link Slice} so no count query is issued.
+     */
+    Slice<Reel> findAllByOrderByCreatedAtDescIdDesc(Pageable pageable);
+
+    /**
+     * Next page of the keyset scroll, strictly after {@code (createdAt, id)} in {@code (created_at DESC, id DESC)} order.
+     * The redundant {@code createdAt <= :createdAt} bound lets the {@code (created_at, id)} index be range-scanned.
+     */
+    @Query(
+        "select reel from Reel reel" +
+        " where reel.createdAt <= :createdAt and (reel.createdAt < :createdAt or reel.id < :id)" +
+        " order by reel.createdAt desc, reel.id desc"
+    )
+    Slice<Reel> findAllAfter(@Param("createdAt") Instant createdAt, @Param("id") UUID id, Pageable pageable);
+
+    /**
+     * First page of the keyset scroll of the reels of a user, newest first, read from the
+     * {@code (user_id, created_at, id, title, video_url)} index.
+     */
+    @Query(
+        "select new com.f4.reel.repository.ReelTimelineRow(reel.id, reel.userId, reel.title, reel.videoUrl, reel.createdAt)" +
+        " from Reel reel where reel.userId = :userId" +
+        " order by reel.createdAt desc, reel.id desc"
+    )
+    Slice<ReelTimelineRow> findTimeline(@Param("userId") UUID userId, Pageable pageable);
+
+    /**
+     * Next page of the keyset scroll of the reels of a user, strictly after {@code (createdAt, id)}, see
+     * {@link #findAllAfter}.
+     */
+    @Query(
+        "select new com.f4.reel.repository.ReelTimelineRow(reel.id, reel.userId, reel.title, reel.videoUrl, reel.createdAt)" +
+        " from Reel reel where reel.userId = :userId" +
+        " and reel.createdAt <= :createdAt and (reel.createdAt < :createdAt or reel.id < :id)" +
+        " order by reel.createdAt desc, reel.id desc"
+    )
+    Slice<ReelTimelineRow> findTimelineAfter(
+        @Param("userId") UUID userId,
+        @Param("createdAt") Instant createdAt,
+        @Param("id") UUID id,
+        Pageable pageable
+    );
+}
@@ -0,0 +1,10 @@
+package com.f4.reel.repository;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * A row of the timeline of a user, read straight from the columns of the {@code reel} table without hydrating a
+ * {@link com.f4.reel.domain.Reel} entity.
+ */
+public record ReelTimelineRow(UUID id, UUID userId, String title, String videoUrl, Instant createdAt) {}
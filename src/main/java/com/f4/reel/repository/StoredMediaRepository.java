@@ -0,0 +1,14 @@
+package com.f4.reel.repository;
+
+import com.f4.reel.domain.StoredMedia;
+import java.util.Optional;
+import org.springframework.data.jpa.repository.*;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Spring Data JPA repository for the StoredMedia entity.
+ */
+@Repository
+public interface StoredMediaRepository extends JpaRepository<StoredMedia, Long> {
+    Optional<StoredMedia> findOneByDedupKey(String dedupKey);
+}
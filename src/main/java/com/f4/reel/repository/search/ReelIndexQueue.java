@@ -0,0 +1,196 @@
+package com.f4.reel.repository.search;
+
+import co.elastic.clients.elasticsearch._types.VersionType;
+import co.elastic.clients.elasticsearch.core.BulkRequest;
+import co.elastic.clients.elasticsearch.core.BulkResponse;
+import co.elastic.clients.elasticsearch.core.bulk.BulkResponseItem;
+import com.f4.reel.config.ApplicationProperties;
+import com.f4.reel.domain.Reel;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.elasticsearch.client.elc.ElasticsearchTemplate;
+import org.springframework.data.elasticsearch.core.document.Document;
+import org.springframework.stereotype.Component;
+
+/**
+ * Buffers index and delete operations on the {@code reel} index and ships them as bulk requests when flushed.
+ * <p>
+ * Every operation carries the version of the change it applies, the id of its outbox event, and is sent with an
+ * external version: Elasticsearch ignores an operation older than the document it already has, so concurrent relays
+ * cannot overwrite a newer state of a reel with an older one. Pending operations are coalesced by reel id, the highest
+ * version winning. Documents are mapped when enqueued, so flushing never reads the database.
+ * <p>
+ * While {@link ReelIndexRebuilder} rebuilds the index, every operation is also sent to the index being rebuilt, so
+ * that the new index misses none of the changes made during the rebuild. Until the {@code reel} alias points to a
+ * versioned index, {@link #flush()} refuses to ship anything: the documents of an older index carry internal versions,
+ * against which the operations would be ignored as superseded.
+ * <p>
+ * The queue never flushes by itself: the outbox relay is the only writer and flushes within its transaction. Operations
+ * rejected by Elasticsearch are not retried by the queue: {@link #flush()} returns their ids and reasons so the caller
+ * can keep or retry them.
+ */
+@Component
+public class ReelIndexQueue {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ReelIndexQueue.class);
+
+    private final ElasticsearchTemplate elasticsearchTemplate;
+
+    private final ReelIndexRebuilder reelIndexRebuilder;
+
+    private final ApplicationProperties.Elasticsearch.Indexing properties;
+
+    /**
+     * Whether the alias was seen pointing to a versioned index: it then keeps doing so, rebuilds only ever swap it to
+     * another versioned index.
+     */
+    private volatile boolean versioned;
+
+    private final Map<UUID, Operation> pending = new LinkedHashMap<>();
+
+    /**
+     * A pending operation, {@code document} being {@code null} for a delete.
+     */
+    private record Operation(Document document, long version) {}
+
+    public ReelIndexQueue(
+        ElasticsearchTemplate elasticsearchTemplate,
+        ReelIndexRebuilder reelIndexRebuilder,
+        ApplicationProperties applicationProperties
+    ) {
+        this.elasticsearchTemplate = elasticsearchTemplate;
+        this.reelIndexRebuilder = reelIndexRebuilder;
+        this.properties = applicationProperties.getElasticsearch().getIndexing();
+    }
+
+    /**
+     * Enqueue the state of the reel for indexing.
+     *
+     * @param reel the reel to index.
+     * @param version the version of this state, higher than the version of any older state of the reel.
+     */
+    public void index(Reel reel, long version) {
+        enqueue(reel.getId(), new Operation(elasticsearchTemplate.getElasticsearchConverter().mapObject(reel), version));
+    }
+
+    /**
+     * Enqueue the removal of the reel from the index.
+     *
+     * @param id the id of the reel to remove.
+     * @param version the version of the removal, higher than the version of any older state of the reel.
+     */
+    public void delete(UUID id, long version) {
+        enqueue(id, new Operation(null, version));
+    }
+
+    /**
+     * @return the number of reels waiting to be flushed.
+     */
+    public synchronized int size() {
+        return pending.size();
+    }
+
+    private synchronized void enqueue(UUID id, Operation operation) {
+        pending.merge(id, operation, (current, next) -> next.version() >= current.version() ? next : current);
+    }
+
+    /**
+     * Ship every pending operation, in bulk requests of at most the configured batch size. When a bulk request fails
+     * as a whole, or while the index is not versioned yet, the operations not shipped yet are dropped and the failure
+     * is thrown: the caller retries them.
+     *
+     * @return the reason of the rejection of each reel whose operation was rejected, by reel id, neither a delete of
+     * a missing document nor an operation superseded by a newer version being a rejection.
+     */
+    public synchronized Map<UUID, String> flush() {
+        Map<UUID, String> failed = new HashMap<>();
+        try {
+            if (!pending.isEmpty() && !versioned) {
+                versioned = reelIndexRebuilder.isVersioned();
+                if (!versioned) {
+                    throw new IllegalStateException("The reel index is not versioned yet, waiting for it to be rebuilt");
+                }
+            }
+            while (!pending.isEmpty()) {
+                failed.putAll(send(drain(properties.getBatchSize())));
+            }
+        } finally {
+            pending.clear();
+        }
+        return failed;
+    }
+
+    private Map<UUID, Operation> drain(int max) {
+        Map<UUID, Operation> batch = new LinkedHashMap<>();
+        Iterator<Map.Entry<UUID, Operation>> operations = pending.entrySet().iterator();
+        while (operations.hasNext() && batch.size() < max) {
+            Map.Entry<UUID, Operation> operation = operations.next();
+            batch.put(operation.getKey(), operation.getValue());
+            operations.remove();
+        }
+        return batch;
+    }
+
+    private Map<UUID, String> send(Map<UUID, Operation> batch) {
+        String indexName = elasticsearchTemplate.getIndexCoordinatesFor(Reel.class).getIndexName();
+        String rebuildAlias = ReelIndexRebuilder.rebuildAlias(indexName);
+        boolean rebuilding = elasticsearchTemplate.execute(client -> client.indices().existsAlias(a -> a.name(rebuildAlias)).value());
+        BulkRequest.Builder request = new BulkRequest.Builder().index(indexName);
+        batch.forEach((id, operation) -> {
+            addOperation(request, id, operation, null);
+            if (rebuilding) {
+                addOperation(request, id, operation, rebuildAlias);
+            }
+        });
+
+        BulkResponse response = elasticsearchTemplate.execute(client -> client.bulk(request.build()));
+        Map<UUID, String> failed = new HashMap<>();
+        if (response.errors()) {
+            List<String> reasons = new ArrayList<>();
+            for (BulkResponseItem item : response.items()) {
+                // 404: the document to delete or the rebuild alias is already gone, 409: the index already has a newer version
+                if (item.error() != null && item.status() != 404 && item.status() != 409) {
+                    failed.put(UUID.fromString(item.id()), item.error().reason());
+                    reasons.add(item.id() + ": " + item.error().reason());
+                }
+            }
+            if (!reasons.isEmpty()) {
+                LOG.warn("{} of {} reel index operations failed: {}", reasons.size(), batch.size(), reasons);
+            }
+        }
+        LOG.debug("Flushed {} reel index operations in {} ms", batch.size(), response.took());
+        return failed;
+    }
+
+    /**
+     * Add the operation to the request, on the default index of the request when {@code alias} is {@code null}.
+     * <p>
+     * Writes through the alias require it to exist, so that one sent just after a rebuild swapped the aliases fails
+     * with a 404 instead of creating an index named like the alias.
+     */
+    private static void addOperation(BulkRequest.Builder request, UUID id, Operation operation, String alias) {
+        String docId = id.toString();
+        if (operation.document() == null) {
+            request.operations(op ->
+                op.delete(d -> {
+                    d.id(docId).version(operation.version()).versionType(VersionType.External);
+                    return alias != null ? d.index(alias) : d;
+                })
+            );
+        } else {
+            request.operations(op ->
+                op.index(i -> {
+                    i.id(docId).document(operation.document()).version(operation.version()).versionType(VersionType.External);
+                    return alias != null ? i.index(alias).requireAlias(true) : i;
+                })
+            );
+        }
+    }
+}
@@ -0,0 +1,315 @@
+package com.f4.reel.repository.search;
+
+import co.elastic.clients.elasticsearch._types.VersionType;
+import co.elastic.clients.elasticsearch.core.BulkRequest;
+import co.elastic.clients.elasticsearch.core.BulkResponse;
+import co.elastic.clients.elasticsearch.core.bulk.BulkResponseItem;
+import co.elastic.clients.util.BinaryData;
+import co.elastic.clients.util.ContentType;
+import com.f4.reel.config.ApplicationProperties;
+import com.f4.reel.domain.Reel;
+import jakarta.persistence.EntityManagerFactory;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.regex.Pattern;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.SessionFactory;
+import org.hibernate.StatelessSession;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.elasticsearch.client.elc.ElasticsearchTemplate;
+import org.springframework.data.elasticsearch.core.IndexOperations;
+import org.springframework.data.elasticsearch.core.document.Document;
+import org.springframework.data.elasticsearch.core.index.AliasAction;
+import org.springframework.data.elasticsearch.core.index.AliasActionParameters;
+import org.springframework.data.elasticsearch.core.index.AliasActions;
+import org.springframework.data.elasticsearch.core.index.AliasData;
+import org.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
+import org.springframework.stereotype.Component;
+
+/**
+ * Rebuilds the {@code reel} Elasticsearch index from the database without disturbing live searches.
+ * <p>
+ * Rows are streamed through a forward-only cursor on a stateless session and serialized once to JSON, whose bytes both
+ * size the batch and are sent as is in byte-sized bulk requests, with a bounded number of bulk requests in flight.
+ * Documents go to a fresh versioned index ({@code reel-<epochMillis>}) and the {@code reel} alias is atomically
+ * swapped to it once fully loaded, so only a few bulk requests worth of documents are ever held on the heap.
+ * <p>
+ * While the rebuild runs, the new index is also reachable through the {@code reel-rebuilding} alias, to which
+ * {@link ReelIndexQueue} copies every write. Rows of the snapshot are indexed with external version 0, so they never
+ * overwrite a document written meanwhile, and the new index remembers deletes for the configured retention, so the
+ * snapshot cannot bring back a reel deleted meanwhile. The previous index is only dropped by the alias swap.
+ * <p>
+ * Documents indexed before the index was versioned by outbox event carry internal versions, against which relayed
+ * writes would be silently ignored: at startup, the index is rebuilt once if the alias does not point to a versioned
+ * index yet, and {@link ReelIndexQueue} refuses to ship writes until it does.
+ */
+@Component
+public class ReelIndexRebuilder {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ReelIndexRebuilder.class);
+
+    /**
+     * Version of the documents read from the database: lower than the version of any write relayed meanwhile.
+     */
+    private static final long SNAPSHOT_VERSION = 0;
+
+    /**
+     * The default retention of deletes of Elasticsearch.
+     */
+    private static final Duration DEFAULT_GC_DELETES = Duration.ofSeconds(60);
+
+    private final ElasticsearchTemplate elasticsearchTemplate;
+
+    private final SessionFactory sessionFactory;
+
+    private final ApplicationProperties.Elasticsearch.Reindex properties;
+
+    public ReelIndexRebuilder(
+        ElasticsearchTemplate elasticsearchTemplate,
+        EntityManagerFactory entityManagerFactory,
+        ApplicationProperties applicationProperties
+    ) {
+        this.elasticsearchTemplate = elasticsearchTemplate;
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        this.properties = applicationProperties.getElasticsearch().getReindex();
+    }
+
+    /**
+     * Rebuild the index if the {@code reel} alias does not point to a versioned index yet, as on a fresh install or
+     * after an upgrade from an index written with internal versions. Runs before the outbox relay starts, and leaves
+     * the index alone while another instance is rebuilding it.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void rebuildIfUnversioned() {
+        if (!properties.isRebuildOnStartup() || isVersioned()) {
+            return;
+        }
+        String alias = aliasName();
+        if (existsAlias(rebuildAlias(alias))) {
+            LOG.info("Elasticsearch alias {} is being rebuilt by another instance", alias);
+            return;
+        }
+        LOG.warn("Elasticsearch alias {} does not point to a versioned index, rebuilding it", alias);
+        try {
+            rebuild();
+        } catch (RuntimeException e) {
+            LOG.error("Could not rebuild Elasticsearch alias {}, reel index writes wait until it is rebuilt", alias, e);
+        }
+    }
+
+    /**
+     * @return whether the {@code reel} alias points to indices built by this class, whose documents are versioned by
+     * outbox event.
+     */
+    boolean isVersioned() {
+        String alias = aliasName();
+        if (!existsAlias(alias)) {
+            // missing, or still a concrete index named like the alias
+            return false;
+        }
+        Set<String> indices = elasticsearchTemplate.execute(client -> client.indices().getAlias(a -> a.name(alias)).result().keySet());
+        Pattern versioned = Pattern.compile(Pattern.quote(alias) + "-\\d+");
+        return !indices.isEmpty() && indices.stream().allMatch(index -> versioned.matcher(index).matches());
+    }
+
+    private String aliasName() {
+        return elasticsearchTemplate.getIndexCoordinatesFor(Reel.class).getIndexName();
+    }
+
+    private boolean existsAlias(String alias) {
+        return elasticsearchTemplate.execute(client -> client.indices().existsAlias(a -> a.name(alias)).value());
+    }
+
+    /**
+     * Rebuild the index behind the {@code reel} alias.
+     *
+     * @return the number of documents indexed.
+     */
+    public long rebuild() {
+        String alias = aliasName();
+        IndexCoordinates target = IndexCoordinates.of(alias + "-" + Instant.now().toEpochMilli());
+        IndexOperations aliasOps = elasticsearchTemplate.indexOps(Reel.class);
+        IndexOperations targetOps = elasticsearchTemplate.indexOps(target);
+        targetOps.create(aliasOps.createSettings(), aliasOps.createMapping());
+        LOG.info("Rebuilding Elasticsearch alias {} into index {}", alias, target.getIndexName());
+
+        long indexed;
+        try {
+            setGcDeletes(target.getIndexName(), properties.getGcDeletes());
+            // from now on the live writes are copied to the new index
+            AliasActionParameters rebuilding = AliasActionParameters.builder()
+                .withIndices(target.getIndexName())
+                .withAliases(rebuildAlias(alias))
+                .build();
+            targetOps.alias(new AliasActions(new AliasAction.Add(rebuilding)));
+            indexed = streamInto(target);
+            targetOps.refresh();
+        } catch (RuntimeException e) {
+            LOG.error("Reindex into {} failed, dropping the partial index", target.getIndexName(), e);
+            targetOps.delete();
+            throw e;
+        }
+        swapAlias(alias, target.getIndexName());
+        setGcDeletes(target.getIndexName(), DEFAULT_GC_DELETES);
+        LOG.info("Rebuilt Elasticsearch alias {} with {} documents", alias, indexed);
+        return indexed;
+    }
+
+    /**
+     * The alias of the index being rebuilt behind an alias, which only exists while the rebuild runs.
+     */
+    static String rebuildAlias(String alias) {
+        return alias + "-rebuilding";
+    }
+
+    private void setGcDeletes(String index, Duration retention) {
+        elasticsearchTemplate.execute(client ->
+            client.indices().putSettings(r -> r.index(index).settings(s -> s.gcDeletes(t -> t.time(retention.toSeconds() + "s"))))
+        );
+    }
+
+    private long streamInto(IndexCoordinates target) {
+        int maxInFlight = Math.max(1, properties.getMaxBulksInFlight());
+        ExecutorService executor = Executors.newFixedThreadPool(maxInFlight, new ReindexThreadFactory());
+        Semaphore inFlight = new Semaphore(maxInFlight);
+        AtomicReference<RuntimeException> failure = new AtomicReference<>();
+        AtomicLong indexed = new AtomicLong();
+
+        try (
+            StatelessSession session = sessionFactory.openStatelessSession();
+            ScrollableResults<Reel> rows = session
+                .createSelectionQuery("select reel from Reel reel", Reel.class)
+                .setFetchSize(properties.getFetchSize())
+                .setReadOnly(true)
+                .scroll(ScrollMode.FORWARD_ONLY)
+        ) {
+            Map<String, BinaryData> batch = new LinkedHashMap<>();
+            long batchBytes = 0;
+            while (rows.next() && failure.get() == null) {
+                Reel reel = rows.get();
+                Document document = elasticsearchTemplate.getElasticsearchConverter().mapObject(reel);
+                byte[] json = document.toJson().getBytes(StandardCharsets.UTF_8);
+                batch.put(String.valueOf(reel.getId()), BinaryData.of(json, ContentType.APPLICATION_JSON));
+                batchBytes += json.length;
+                if (batchBytes >= properties.getBulkSizeBytes()) {
+                    submitBulk(executor, inFlight, failure, indexed, batch, target);
+                    batch = new LinkedHashMap<>();
+                    batchBytes = 0;
+                }
+            }
+            if (!batch.isEmpty()) {
+                submitBulk(executor, inFlight, failure, indexed, batch, target);
+            }
+            // wait for the remaining bulk requests to drain
+            inFlight.acquire(maxInFlight);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Reindex interrupted", e);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        if (failure.get() != null) {
+            throw failure.get();
+        }
+        return indexed.get();
+    }
+
+    private void submitBulk(
+        ExecutorService executor,
+        Semaphore inFlight,
+        AtomicReference<RuntimeException> failure,
+        AtomicLong indexed,
+        Map<String, BinaryData> batch,
+        IndexCoordinates target
+    ) throws InterruptedException {
+        inFlight.acquire();
+        executor.execute(() -> {
+            try {
+                bulkIndex(batch, target);
+                long total = indexed.addAndGet(batch.size());
+                LOG.debug("Indexed {} reels into {} ({} so far)", batch.size(), target.getIndexName(), total);
+            } catch (RuntimeException e) {
+                failure.compareAndSet(null, e);
+            } finally {
+                inFlight.release();
+            }
+        });
+    }
+
+    private void bulkIndex(Map<String, BinaryData> batch, IndexCoordinates target) {
+        BulkRequest.Builder request = new BulkRequest.Builder().index(target.getIndexName());
+        batch.forEach((id, document) ->
+            request.operations(op -> op.index(i -> i.id(id).document(document).version(SNAPSHOT_VERSION).versionType(VersionType.External)))
+        );
+        BulkResponse response = elasticsearchTemplate.execute(client -> client.bulk(request.build()));
+        if (response.errors()) {
+            List<String> reasons = new ArrayList<>();
+            for (BulkResponseItem item : response.items()) {
+                // 409: the reel was written or deleted by the outbox relay since the rebuild began
+                if (item.error() != null && item.status() != 409) {
+                    reasons.add(item.id() + ": " + item.error().reason());
+                }
+            }
+            if (!reasons.isEmpty()) {
+                throw new IllegalStateException(reasons.size() + " of " + batch.size() + " reels could not be indexed: " + reasons);
+            }
+        }
+    }
+
+    private void swapAlias(String alias, String newIndex) {
+        IndexOperations aliasOps = elasticsearchTemplate.indexOps(IndexCoordinates.of(alias));
+        AliasActions actions = new AliasActions(
+            new AliasAction.Add(AliasActionParameters.builder().withIndices(newIndex).withAliases(alias).build()),
+            new AliasAction.Remove(AliasActionParameters.builder().withIndices(newIndex).withAliases(rebuildAlias(alias)).build())
+        );
+
+        Map<String, Set<AliasData>> current = aliasOps.exists() ? aliasOps.getAliasesForIndex(alias) : Map.of();
+        if (current.containsKey(alias)) {
+            // first rebuild: the live index is still a concrete index named like the alias
+            actions.add(new AliasAction.RemoveIndex(AliasActionParameters.builder().withIndices(alias).build()));
+        } else {
+            current
+                .keySet()
+                .stream()
+                .filter(index -> !index.equals(newIndex))
+                .forEach(index ->
+                    actions.add(new AliasAction.RemoveIndex(AliasActionParameters.builder().withIndices(index).build()))
+                );
+        }
+        aliasOps.alias(actions);
+        LOG.info("Alias {} now points to {}", alias, newIndex);
+    }
+
+    private static class ReindexThreadFactory implements ThreadFactory {
+
+        private final AtomicInteger threadNumber = new AtomicInteger(1);
+
+        @Override
+        public Thread newThread(Runnable r) {
+            Thread thread = new Thread(r, "reel-reindex-" + threadNumber.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
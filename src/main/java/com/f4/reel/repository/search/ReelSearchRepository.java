@@ -2,12 +2,11 @@ package com.f4.reel.repository.search;
 
 import co.elastic.clients.elasticsearch._types.query_dsl.QueryStringQuery;
 import com.f4.reel.domain.Reel;
-import com.f4.reel.repository.ReelRepository;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
-import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.elasticsearch.client.elc.ElasticsearchTemplate;
 import org.springframework.data.elasticsearch.client.elc.NativeQuery;
@@ -15,7 +14,6 @@ import org.springframework.data.elasticsearch.core.SearchHit;
 import org.springframework.data.elasticsearch.core.SearchHits;
 import org.springframework.data.elasticsearch.core.query.Query;
 import org.springframework.data.elasticsearch.repository.ElasticsearchRepository;
-import org.springframework.scheduling.annotation.Async;
 
 /**
  * Spring Data Elasticsearch repository for the {@link Reel} entity.
@@ -28,11 +26,28 @@ interface ReelSearchRepositoryInternal {
 
     Page<Reel> search(Query query);
 
-    @Async
-    void index(Reel entity);
+    /**
+     * Enqueue the indexing of a state of the reel.
+     *
+     * @param entity the reel to index.
+     * @param version the version of this state; Elasticsearch ignores it when it already has a higher one.
+     */
+    void index(Reel entity, long version);
 
-    @Async
-    void deleteFromIndexById(UUID id);
+    /**
+     * Enqueue the removal of the reel from the index.
+     *
+     * @param id the id of the reel to remove.
+     * @param version the version of the removal; Elasticsearch ignores it when it already has a higher one.
+     */
+    void deleteFromIndexById(UUID id, long version);
+
+    /**
+     * Ship the pending index operations.
+     *
+     * @return the reason of the rejection of each reel whose operation was rejected by Elasticsearch, by reel id.
+     */
+    Map<UUID, String> flushIndex();
 
     void reindexAll();
 }
@@ -40,11 +55,17 @@ interface ReelSearchRepositoryInternal {
 class ReelSearchRepositoryInternalImpl implements ReelSearchRepositoryInternal {
 
     private final ElasticsearchTemplate elasticsearchTemplate;
-    private final ReelRepository repository;
+    private final ReelIndexQueue reelIndexQueue;
+    private final ReelIndexRebuilder reelIndexRebuilder;
 
-    ReelSearchRepositoryInternalImpl(ElasticsearchTemplate elasticsearchTemplate, ReelRepository repository) {
+    ReelSearchRepositoryInternalImpl(
+        ElasticsearchTemplate elasticsearchTemplate,
+        ReelIndexQueue reelIndexQueue,
+        ReelIndexRebuilder reelIndexRebuilder
+    ) {
         this.elasticsearchTemplate = elasticsearchTemplate;
-        this.repository = repository;
+        this.reelIndexQueue = reelIndexQueue;
+        this.reelIndexRebuilder = reelIndexRebuilder;
     }
 
     @Override
@@ -61,27 +82,22 @@ class ReelSearchRepositoryInternalImpl implements ReelSearchRepositoryInternal {
     }
 
     @Override
-    public void index(Reel entity) {
-        repository.findById(entity.getId()).ifPresent(elasticsearchTemplate::save);
+    public void index(Reel entity, long version) {
+        reelIndexQueue.index(entity, version);
+    }
+
+    @Override
+    public void deleteFromIndexById(UUID id, long version) {
+        reelIndexQueue.delete(id, version);
     }
 
     @Override
-    public void deleteFromIndexById(UUID id) {
-        elasticsearchTemplate.delete(String.valueOf(id), Reel.class);
+    public Map<UUID, String> flushIndex() {
+        return reelIndexQueue.flush();
     }
 
     @Override
     public void reindexAll() {
-        int pageSize = 50000;
-        int pageNumber = 0;
-        Page<Reel> page;
-        do {
-            page = repository.findAll(PageRequest.of(pageNumber, pageSize));
-            List<Reel> entities = page.getContent();
-            elasticsearchTemplate.save(entities); // batch save if possible
-            long count = elasticsearchTemplate.count(NativeQuery.builder().build(), Reel.class);
-            System.out.println("Indexed " + entities.size() + " reels. Total in Elasticsearch: " + count);
-            pageNumber++;
-        } while (page.hasNext());
+        reelIndexRebuilder.rebuild();
     }
 }
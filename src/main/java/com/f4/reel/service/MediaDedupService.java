@@ -0,0 +1,166 @@
+package com.f4.reel.service;
+
+import com.f4.reel.config.ApplicationProperties;
+import com.f4.reel.domain.StoredMedia;
+import com.f4.reel.repository.StoredMediaRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.Optional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+
+/**
+ * Content-addressed storage of media files on top of {@link MinioStorageService}.
+ * <p>
+ * Every stored object is indexed by the SHA-256 digest of its content, computed while it streams into MinIO, and by
+ * the source it was downloaded from, if any. A download whose source is already indexed is skipped altogether; an
+ * upload whose content is already stored is removed again, and the existing object is returned instead. The index
+ * lives in the {@code stored_media} table, with a local cache in front of it.
+ */
+@Service
+public class MediaDedupService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(MediaDedupService.class);
+
+    static final String SOURCE_PREFIX = "src:";
+
+    static final String CONTENT_PREFIX = "sha256:";
+
+    private final MinioStorageService minioStorageService;
+
+    private final StoredMediaRepository storedMediaRepository;
+
+    private final boolean enabled;
+
+    private final Cache<String, String> objectNames;
+
+    private final Counter sourceHits;
+
+    private final Counter contentHits;
+
+    private final Counter savedBytes;
+
+    public MediaDedupService(
+        MinioStorageService minioStorageService,
+        StoredMediaRepository storedMediaRepository,
+        ApplicationProperties applicationProperties,
+        MeterRegistry meterRegistry
+    ) {
+        this.minioStorageService = minioStorageService;
+        this.storedMediaRepository = storedMediaRepository;
+        this.enabled = applicationProperties.getMediaDedup().isEnabled();
+        this.objectNames = Caffeine.newBuilder().maximumSize(applicationProperties.getMediaDedup().getCacheSize()).build();
+        this.sourceHits = Counter.builder("media.dedup.hits").tag("key", "source").register(meterRegistry);
+        this.contentHits = Counter.builder("media.dedup.hits").tag("key", "content").register(meterRegistry);
+        this.savedBytes = Counter.builder("media.dedup.saved.bytes").baseUnit("bytes").register(meterRegistry);
+    }
+
+    /**
+     * Find the object already stored for a source.
+     *
+     * @param source the source, e.g. the download URL.
+     * @return the public URL of the stored object, if any.
+     */
+    public Optional<String> findBySource(String source) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        Optional<String> objectName = lookup(sourceKey(source));
+        if (objectName.isPresent()) {
+            sourceHits.increment();
+            LOG.debug("Source {} already stored as {}", source, objectName.get());
+        }
+        return objectName.map(minioStorageService::urlOf);
+    }
+
+    /**
+     * Store a stream, unless the same content is already stored.
+     *
+     * @param source the source of the content, indexed for {@link #findBySource}, or {@code null}.
+     * @param objectName the object name, if the content is new.
+     * @param stream the content, not closed by this method.
+     * @param size the content length, or {@code -1} if unknown.
+     * @param contentType the content type.
+     * @return the public URL of the stored object.
+     */
+    public String store(String source, String objectName, InputStream stream, long size, String contentType) throws IOException {
+        MinioStorageService.StoredObject stored = minioStorageService.store(objectName, stream, size, contentType);
+        if (!enabled) {
+            return stored.url();
+        }
+
+        String contentKey = CONTENT_PREFIX + stored.sha256();
+        String storedName = lookup(contentKey).orElse(null);
+        if (storedName == null && !index(contentKey, stored.objectName(), stored.size())) {
+            // stored concurrently by another upload
+            storedName = lookup(contentKey).orElse(null);
+        }
+        if (storedName != null && !storedName.equals(stored.objectName())) {
+            contentHits.increment();
+            savedBytes.increment(stored.size());
+            LOG.debug("Content of {} already stored as {}", stored.objectName(), storedName);
+            discard(stored.objectName());
+        } else {
+            storedName = stored.objectName();
+        }
+
+        if (source != null) {
+            index(sourceKey(source), storedName, stored.size());
+        }
+        return minioStorageService.urlOf(storedName);
+    }
+
+    private Optional<String> lookup(String key) {
+        String cached = objectNames.getIfPresent(key);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        Optional<String> objectName = storedMediaRepository.findOneByDedupKey(key).map(StoredMedia::getObjectName);
+        objectName.ifPresent(name -> objectNames.put(key, name));
+        return objectName;
+    }
+
+    /**
+     * @return whether the key was indexed, {@code false} if it already was.
+     */
+    private boolean index(String key, String objectName, long size) {
+        try {
+            storedMediaRepository.saveAndFlush(
+                new StoredMedia().dedupKey(key).objectName(objectName).size(size).createdAt(Instant.now())
+            );
+            objectNames.put(key, objectName);
+            return true;
+        } catch (DataIntegrityViolationException e) {
+            LOG.debug("Key {} already indexed", key);
+            return false;
+        }
+    }
+
+    private void discard(String objectName) {
+        try {
+            minioStorageService.remove(objectName);
+        } catch (IOException e) {
+            LOG.warn("Could not remove duplicate object {}: {}", objectName, e.getMessage());
+        }
+    }
+
+    static String sourceKey(String source) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(source.getBytes(StandardCharsets.UTF_8));
+            return SOURCE_PREFIX + HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
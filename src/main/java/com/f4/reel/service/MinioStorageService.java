@@ -0,0 +1,314 @@
+package com.f4.reel.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.minio.GetObjectArgs;
+import io.minio.MinioClient;
+import io.minio.PutObjectArgs;
+import io.minio.RemoveObjectArgs;
+import io.minio.StatObjectArgs;
+import io.minio.StatObjectResponse;
+import io.minio.errors.ErrorResponseException;
+import jakarta.annotation.PreDestroy;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
+import okhttp3.OkHttpClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Access to the MinIO bucket holding the media files.
+ * <p>
+ * A single {@link MinioClient} is shared by all the uploads, on top of an OkHttp client with a bounded, keep-alive
+ * connection pool, so TLS handshakes are paid once per connection instead of once per upload. Uploads are timed and
+ * their bytes counted and hashed on the fly.
+ */
+@Service
+public class MinioStorageService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(MinioStorageService.class);
+
+    private final String endpoint;
+
+    private final String bucketName;
+
+    private final long partSize;
+
+    private final OkHttpClient httpClient;
+
+    private final MinioClient minioClient;
+
+    private final Timer uploadTimer;
+
+    private final Timer failedUploadTimer;
+
+    private final Counter uploadedBytes;
+
+    public MinioStorageService(
+        @Value("${minio.endpoint}") String endpoint,
+        @Value("${minio.access-key}") String accessKey,
+        @Value("${minio.secret-key}") String secretKey,
+        @Value("${minio.bucket-name}") String bucketName,
+        @Value("${minio.part-size:10485760}") long partSize,
+        @Value("${minio.pool.max-idle-connections:32}") int maxIdleConnections,
+        @Value("${minio.pool.keep-alive:5m}") Duration keepAlive,
+        @Value("${minio.pool.max-requests:64}") int maxRequests,
+        @Value("${minio.connect-timeout:5s}") Duration connectTimeout,
+        @Value("${minio.read-timeout:60s}") Duration readTimeout,
+        @Value("${minio.write-timeout:60s}") Duration writeTimeout,
+        MeterRegistry meterRegistry
+    ) {
+        this.endpoint = endpoint;
+        this.bucketName = bucketName;
+        this.partSize = partSize;
+
+        Dispatcher dispatcher = new Dispatcher();
+        dispatcher.setMaxRequests(maxRequests);
+        dispatcher.setMaxRequestsPerHost(maxRequests);
+        this.httpClient = new OkHttpClient.Builder()
+            .connectionPool(new ConnectionPool(maxIdleConnections, keepAlive.toMillis(), TimeUnit.MILLISECONDS))
+            .dispatcher(dispatcher)
+            .connectTimeout(connectTimeout)
+            .readTimeout(readTimeout)
+            .writeTimeout(writeTimeout)
+            .build();
+        this.minioClient = MinioClient.builder().endpoint(endpoint).credentials(accessKey, secretKey).httpClient(httpClient).build();
+
+        this.uploadTimer = Timer.builder("minio.upload").tag("outcome", "success").register(meterRegistry);
+        this.failedUploadTimer = Timer.builder("minio.upload").tag("outcome", "failure").register(meterRegistry);
+        this.uploadedBytes = Counter.builder("minio.upload.bytes").baseUnit("bytes").register(meterRegistry);
+    }
+
+    /**
+     * Upload a stream to the bucket. Large or unsized streams go up as a multipart upload of
+     * {@code minio.part-size} parts, one part buffered at a time.
+     *
+     * @param objectName the object name.
+     * @param stream the content, not closed by this method.
+     * @param size the content length, or {@code -1} if unknown.
+     * @param contentType the content type.
+     * @return the public URL of the object.
+     */
+    public String upload(String objectName, InputStream stream, long size, String contentType) throws IOException {
+        return store(objectName, stream, size, contentType).url();
+    }
+
+    /**
+     * Upload a stream to the bucket, see {@link #upload}, computing the SHA-256 digest of the content as it goes.
+     *
+     * @param objectName the object name.
+     * @param stream the content, not closed by this method.
+     * @param size the content length, or {@code -1} if unknown.
+     * @param contentType the content type.
+     * @return the stored object.
+     */
+    public StoredObject store(String objectName, InputStream stream, long size, String contentType) throws IOException {
+        long start = System.nanoTime();
+        CountingInputStream counting = new CountingInputStream(stream);
+        try {
+            minioClient.putObject(
+                PutObjectArgs.builder().bucket(bucketName).object(objectName).stream(counting, size, partSize).contentType(contentType).build()
+            );
+        } catch (IOException e) {
+            failedUploadTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            throw e;
+        } catch (Exception e) {
+            failedUploadTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            throw new IOException("Error uploading " + objectName + " to MinIO", e);
+        }
+        uploadTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        uploadedBytes.increment(counting.count);
+        LOG.debug("Uploaded {} ({} bytes) to MinIO", objectName, counting.count);
+        return new StoredObject(objectName, urlOf(objectName), counting.count, HexFormat.of().formatHex(counting.digest.digest()));
+    }
+
+    /**
+     * Remove an object from the bucket.
+     *
+     * @param objectName the object name.
+     */
+    public void remove(String objectName) throws IOException {
+        try {
+            minioClient.removeObject(RemoveObjectArgs.builder().bucket(bucketName).object(objectName).build());
+        } catch (IOException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IOException("Error removing " + objectName + " from MinIO", e);
+        }
+    }
+
+    /**
+     * Get the metadata of an object.
+     *
+     * @param objectName the object name.
+     * @return the metadata of the object, if it exists.
+     */
+    public Optional<ObjectStat> stat(String objectName) throws IOException {
+        try {
+            StatObjectResponse response = minioClient.statObject(StatObjectArgs.builder().bucket(bucketName).object(objectName).build());
+            return Optional.of(
+                new ObjectStat(
+                    objectName,
+                    response.size(),
+                    response.etag(),
+                    response.contentType(),
+                    response.lastModified() != null ? response.lastModified().toInstant() : null
+                )
+            );
+        } catch (ErrorResponseException e) {
+            if ("NoSuchKey".equals(e.errorResponse().code())) {
+                return Optional.empty();
+            }
+            throw new IOException("Error reading the metadata of " + objectName + " from MinIO", e);
+        } catch (IOException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IOException("Error reading the metadata of " + objectName + " from MinIO", e);
+        }
+    }
+
+    /**
+     * Open a byte range of an object. Only the requested range is transferred.
+     *
+     * @param objectName the object name.
+     * @param offset the offset of the first byte.
+     * @param length the number of bytes.
+     * @return the content of the range, to be closed by the caller.
+     */
+    public InputStream open(String objectName, long offset, long length) throws IOException {
+        try {
+            return minioClient.getObject(GetObjectArgs.builder().bucket(bucketName).object(objectName).offset(offset).length(length).build());
+        } catch (IOException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IOException("Error reading " + objectName + " from MinIO", e);
+        }
+    }
+
+    /**
+     * @param objectName the object name.
+     * @return the public URL of the object.
+     */
+    public String urlOf(String objectName) {
+        return endpoint + "/" + bucketName + "/" + objectName;
+    }
+
+    /**
+     * The inverse of {@link #urlOf}.
+     *
+     * @param url a URL.
+     * @return the name of the object at that URL, if it is in the bucket.
+     */
+    public Optional<String> objectNameOf(String url) {
+        String prefix = urlOf("");
+        if (url == null || !url.startsWith(prefix) || url.length() == prefix.length()) {
+            return Optional.empty();
+        }
+        return Optional.of(url.substring(prefix.length()));
+    }
+
+    public String getBucketName() {
+        return bucketName;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        httpClient.dispatcher().executorService().shutdown();
+        httpClient.connectionPool().evictAll();
+    }
+
+    /**
+     * An object stored in the bucket.
+     *
+     * @param objectName the object name.
+     * @param url the public URL of the object.
+     * @param size the number of bytes uploaded.
+     * @param sha256 the hex SHA-256 digest of the content.
+     */
+    public record StoredObject(String objectName, String url, long size, String sha256) {}
+
+    /**
+     * The metadata of an object in the bucket.
+     *
+     * @param objectName the object name.
+     * @param size the size of the object, in bytes.
+     * @param etag the entity tag of the object.
+     * @param contentType the content type of the object.
+     * @param lastModified when the object was last modified.
+     */
+    public record ObjectStat(String objectName, long size, String etag, String contentType, Instant lastModified) {}
+
+    private static final class CountingInputStream extends FilterInputStream {
+
+        private final MessageDigest digest;
+
+        private long count;
+
+        CountingInputStream(InputStream in) {
+            super(in);
+            try {
+                this.digest = MessageDigest.getInstance("SHA-256");
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                count++;
+                digest.update((byte) b);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            if (n > 0) {
+                count += n;
+                digest.update(b, off, n);
+            }
+            return n;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            // skipped bytes must still be hashed
+            byte[] buffer = new byte[(int) Math.min(n, 8192)];
+            long skipped = 0;
+            while (skipped < n) {
+                int read = read(buffer, 0, (int) Math.min(buffer.length, n - skipped));
+                if (read < 0) {
+                    break;
+                }
+                skipped += read;
+            }
+            return skipped;
+        }
+
+        @Override
+        public boolean markSupported() {
+            return false;
+        }
+
+        @Override
+        public void close() {
+            // the caller owns the underlying stream
+        }
+    }
+}
@@ -0,0 +1,399 @@
+package com.f4.reel.service;
+
+import com.f4.reel.config.ApplicationProperties;
+import com.f4.reel.service.dto.PexelsImportJobDTO;
+import com.f4.reel.service.dto.PexelsImportRequest;
+import com.f4.reel.service.dto.ReelDTO;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PreDestroy;
+import java.net.URI;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+/**
+ * Bulk import of Pexels videos as reels.
+ * <p>
+ * An import job resolves its assets up front, then streams them into MinIO on a shared pool of workers. Assets are
+ * queued per host and handed to the workers at most {@code maxPerHost} at a time for any single host, so a worker never
+ * waits for a slow host while assets of other hosts are pending. Only assets from the allowed hosts, and from the MinIO
+ * host, are accepted, and a job is refused when it would bring the number of queued assets over
+ * {@code queueCapacity}. The reels are created in batches of {@code batchSize}, one transaction per batch. Progress is
+ * tracked per job and can be polled until {@code jobRetention} after the job finished.
+ */
+@Service
+public class PexelsImportService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(PexelsImportService.class);
+
+    private static final Pattern PAGE_SLUG = Pattern.compile("/video/([^/]+?)-(\\d+)/?$");
+
+    private static final Pattern FILE_ID = Pattern.compile("/video-files/(\\d+)/");
+
+    private static final List<String> PREFERRED_QUALITIES = List.of("hd", "sd");
+
+    private static final int MAX_ERRORS = 20;
+
+    private final PexelsService pexelsService;
+
+    private final ReelService reelService;
+
+    private final ApplicationProperties.PexelsImport properties;
+
+    private final ThreadPoolExecutor workers;
+
+    private final Set<String> allowedHosts;
+
+    private final Map<String, HostQueue> hostQueues = new ConcurrentHashMap<>();
+
+    private final AtomicInteger queuedAssets = new AtomicInteger();
+
+    private final Map<UUID, Job> runningJobs = new ConcurrentHashMap<>();
+
+    private final Cache<UUID, Job> finishedJobs;
+
+    public PexelsImportService(
+        PexelsService pexelsService,
+        ReelService reelService,
+        ApplicationProperties applicationProperties,
+        @Value("${minio.endpoint:}") String minioEndpoint
+    ) {
+        this.pexelsService = pexelsService;
+        this.reelService = reelService;
+        this.properties = applicationProperties.getPexelsImport();
+        // never full: the queued assets are bounded by queueCapacity before they reach the workers
+        this.workers = new ThreadPoolExecutor(
+            properties.getWorkers(),
+            properties.getWorkers(),
+            0L,
+            TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(Math.max(1, properties.getQueueCapacity())),
+            new CustomizableThreadFactory("pexels-import-")
+        );
+        this.allowedHosts = Stream.concat(properties.getAllowedHosts().stream(), Stream.of(hostOf(minioEndpoint)))
+            .filter(host -> !host.isBlank())
+            .map(host -> host.toLowerCase(Locale.ROOT))
+            .collect(Collectors.toUnmodifiableSet());
+        this.finishedJobs = Caffeine.newBuilder().expireAfterWrite(properties.getJobRetention()).build();
+    }
+
+    /**
+     * Start an import job.
+     *
+     * @param request the import request, with either a query or a list of video file URLs.
+     * @return the initial state of the job.
+     * @throws IllegalArgumentException if the request has no assets, more than {@code maxAssets}, or a URL of a host
+     * that is not allowed.
+     * @throws RejectedExecutionException if too many assets are already queued.
+     */
+    public PexelsImportJobDTO start(PexelsImportRequest request) {
+        LOG.debug("Request to start Pexels import : {}", request);
+        List<Asset> assets = resolveAssets(request);
+        if (assets.isEmpty()) {
+            throw new IllegalArgumentException("Nothing to import");
+        }
+        if (assets.size() > properties.getMaxAssets()) {
+            throw new IllegalArgumentException("Cannot import more than " + properties.getMaxAssets() + " assets at once");
+        }
+
+        if (queuedAssets.addAndGet(assets.size()) > properties.getQueueCapacity()) {
+            queuedAssets.addAndGet(-assets.size());
+            throw new RejectedExecutionException("Too many assets queued for import, try again later");
+        }
+
+        Job job = new Job(request.getUserId(), assets.size());
+        runningJobs.put(job.id, job);
+        for (Asset asset : assets) {
+            hostQueues.computeIfAbsent(hostOf(asset.url()), host -> new HostQueue()).submit(job, asset);
+        }
+        return job.toDto();
+    }
+
+    /**
+     * Get the state of an import job.
+     *
+     * @param id the id of the job.
+     * @return the state of the job, if it is running or finished recently.
+     */
+    public Optional<PexelsImportJobDTO> findJob(UUID id) {
+        Job job = runningJobs.get(id);
+        if (job == null) {
+            job = finishedJobs.getIfPresent(id);
+        }
+        return Optional.ofNullable(job).map(Job::toDto);
+    }
+
+    private List<Asset> resolveAssets(PexelsImportRequest request) {
+        List<Asset> assets = new ArrayList<>();
+        if (request.getUrls() != null) {
+            for (String url : request.getUrls()) {
+                if (url != null && !url.isBlank()) {
+                    if (!isAllowed(url)) {
+                        throw new IllegalArgumentException("Cannot import from " + url + ": host not allowed");
+                    }
+                    assets.add(new Asset(url, titleOfFile(url)));
+                }
+            }
+        }
+        if (request.getQuery() != null && !request.getQuery().isBlank()) {
+            for (Map<String, Object> video : pexelsService.searchVideos(request.getQuery(), request.getPerPage())) {
+                String link = bestFile(video.get("files"));
+                if (link != null && isAllowed(link)) {
+                    assets.add(new Asset(link, titleOfPage(video.get("url"), video.get("id"))));
+                } else if (link != null) {
+                    LOG.warn("Skipping Pexels video {}: host of {} not allowed", video.get("id"), link);
+                }
+            }
+        }
+        return assets;
+    }
+
+    private boolean isAllowed(String url) {
+        try {
+            String scheme = URI.create(url).getScheme();
+            return ("https".equalsIgnoreCase(scheme) || "http".equalsIgnoreCase(scheme)) && allowedHosts.contains(hostOf(url));
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    private void importAsset(Job job, Asset asset) {
+        try {
+            String storedUrl = pexelsService.storePexelsVideo(asset.url());
+            job.stored.incrementAndGet();
+
+            ReelDTO reel = new ReelDTO();
+            reel.setUserId(job.userId);
+            reel.setTitle(asset.title());
+            reel.setVideoUrl(storedUrl);
+            reel.setCreatedAt(Instant.now());
+            List<ReelDTO> batch = job.add(reel, properties.getBatchSize());
+            if (batch != null) {
+                flush(job, batch);
+            }
+        } catch (RuntimeException e) {
+            LOG.warn("Could not import {} in job {}: {}", asset.url(), job.id, e.getMessage());
+            job.fail(asset.url(), e.getMessage());
+        } finally {
+            done(job);
+        }
+    }
+
+    private void done(Job job) {
+        queuedAssets.decrementAndGet();
+        if (job.remaining.decrementAndGet() == 0) {
+            finish(job);
+        }
+    }
+
+    private void flush(Job job, List<ReelDTO> batch) {
+        try {
+            job.created.addAndGet(reelService.saveAll(batch).size());
+        } catch (RuntimeException e) {
+            LOG.error("Could not create {} reels in job {}: {}", batch.size(), job.id, e.getMessage());
+            for (ReelDTO reel : batch) {
+                job.fail(reel.getVideoUrl(), e.getMessage());
+            }
+        }
+    }
+
+    private void finish(Job job) {
+        List<ReelDTO> rest = job.drain();
+        if (!rest.isEmpty()) {
+            flush(job, rest);
+        }
+        job.finishedAt = Instant.now();
+        job.status = job.created.get() == 0 && job.failed.get() > 0 ? PexelsImportJobDTO.Status.FAILED : PexelsImportJobDTO.Status.COMPLETED;
+        finishedJobs.put(job.id, job);
+        runningJobs.remove(job.id);
+        LOG.info("Pexels import {} {}: {} reels created, {} failed", job.id, job.status, job.created.get(), job.failed.get());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdownNow();
+    }
+
+    private static String hostOf(String url) {
+        try {
+            String host = URI.create(url).getHost();
+            return host != null ? host.toLowerCase(Locale.ROOT) : "";
+        } catch (IllegalArgumentException e) {
+            return "";
+        }
+    }
+
+    private static String bestFile(Object files) {
+        if (!(files instanceof Map<?, ?> byQuality) || byQuality.isEmpty()) {
+            return null;
+        }
+        for (String quality : PREFERRED_QUALITIES) {
+            if (byQuality.get(quality) instanceof String link && !link.isBlank()) {
+                return link;
+            }
+        }
+        return byQuality.values().stream().filter(String.class::isInstance).map(String.class::cast).findFirst().orElse(null);
+    }
+
+    private static String titleOfPage(Object pageUrl, Object id) {
+        if (pageUrl instanceof String url) {
+            Matcher matcher = PAGE_SLUG.matcher(url);
+            if (matcher.find()) {
+                String title = matcher.group(1).replace('-', ' ');
+                return Character.toUpperCase(title.charAt(0)) + title.substring(1);
+            }
+        }
+        return "Pexels video " + id;
+    }
+
+    private static String titleOfFile(String fileUrl) {
+        Matcher matcher = FILE_ID.matcher(fileUrl);
+        return matcher.find() ? "Pexels video " + matcher.group(1) : "Pexels video";
+    }
+
+    private record Asset(String url, String title) {}
+
+    /**
+     * The assets waiting for a host, handed to the workers at most {@code maxPerHost} at a time.
+     */
+    private final class HostQueue {
+
+        private final Deque<Pending> waiting = new ArrayDeque<>();
+
+        private int running;
+
+        void submit(Job job, Asset asset) {
+            synchronized (this) {
+                if (running >= properties.getMaxPerHost()) {
+                    waiting.add(new Pending(job, asset));
+                    return;
+                }
+                running++;
+            }
+            dispatch(new Pending(job, asset));
+        }
+
+        private void dispatch(Pending pending) {
+            try {
+                workers.execute(() -> {
+                    try {
+                        importAsset(pending.job(), pending.asset());
+                    } finally {
+                        next();
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                // the workers are shutting down
+                pending.job().fail(pending.asset().url(), "import service shutting down");
+                done(pending.job());
+                next();
+            }
+        }
+
+        private void next() {
+            Pending pending;
+            synchronized (this) {
+                pending = waiting.poll();
+                if (pending == null) {
+                    running--;
+                    return;
+                }
+            }
+            dispatch(pending);
+        }
+    }
+
+    private record Pending(Job job, Asset asset) {}
+
+    private static final class Job {
+
+        private final UUID id = UUID.randomUUID();
+        private final UUID userId;
+        private final int total;
+        private final Instant startedAt = Instant.now();
+        private final AtomicInteger remaining;
+        private final AtomicInteger stored = new AtomicInteger();
+        private final AtomicInteger created = new AtomicInteger();
+        private final AtomicInteger failed = new AtomicInteger();
+        private final List<String> errors = new ArrayList<>();
+        private final List<ReelDTO> pending = new ArrayList<>();
+        private volatile PexelsImportJobDTO.Status status = PexelsImportJobDTO.Status.RUNNING;
+        private volatile Instant finishedAt;
+
+        Job(UUID userId, int total) {
+            this.userId = userId;
+            this.total = total;
+            this.remaining = new AtomicInteger(total);
+        }
+
+        /**
+         * @return a full batch to flush, or {@code null}.
+         */
+        List<ReelDTO> add(ReelDTO reel, int batchSize) {
+            synchronized (pending) {
+                pending.add(reel);
+                return pending.size() >= batchSize ? drainLocked() : null;
+            }
+        }
+
+        List<ReelDTO> drain() {
+            synchronized (pending) {
+                return drainLocked();
+            }
+        }
+
+        private List<ReelDTO> drainLocked() {
+            List<ReelDTO> batch = new ArrayList<>(pending);
+            pending.clear();
+            return batch;
+        }
+
+        void fail(String url, String message) {
+            failed.incrementAndGet();
+            synchronized (errors) {
+                if (errors.size() < MAX_ERRORS) {
+                    errors.add(url + ": " + message);
+                }
+            }
+        }
+
+        PexelsImportJobDTO toDto() {
+            PexelsImportJobDTO dto = new PexelsImportJobDTO();
+            dto.setId(id);
+            dto.setStatus(status);
+            dto.setTotal(total);
+            dto.setStored(stored.get());
+            dto.setCreated(created.get());
+            dto.setFailed(failed.get());
+            dto.setStartedAt(startedAt);
+            dto.setFinishedAt(finishedAt);
+            synchronized (errors) {
+                dto.setErrors(List.copyOf(errors));
+            }
+            return dto;
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package com.f4.reel.service;
+
+import com.f4.reel.client.api.CommentResourceApi;
+import com.f4.reel.client.api.LikeResourceApi;
+import com.f4.reel.config.ApplicationProperties;
+import com.f4.reel.service.dto.ReelCursor;
+import com.f4.reel.service.dto.ReelDTO;
+import com.f4.reel.service.dto.ReelFeedItemDTO;
+import com.f4.reel.service.dto.UserProfileDTO;
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.BiFunction;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Slice;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.concurrent.DelegatingSecurityContextRunnable;
+import org.springframework.stereotype.Service;
+
+/**
+ * The feed of reels, enriched with their creators and their like and comment counts.
+ * <p>
+ * A page makes at most one call per downstream service, all in parallel: the counts of the reels not cached are
+ * fetched in a single batched call to the like service and another to the comment service, and the creators through
+ * {@link UserProfileService}. Counts are cached for a few seconds. Whatever is not there after {@code timeout} is left
+ * out of the page rather than delaying it.
+ */
+@Service
+public class ReelFeedService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ReelFeedService.class);
+
+    private final ReelService reelService;
+
+    private final UserProfileService userProfileService;
+
+    private final ApplicationProperties.ReelFeed properties;
+
+    private final ExecutorService pool;
+
+    private final Executor executor;
+
+    private final AsyncLoadingCache<UUID, Long> likeCounts;
+
+    private final AsyncLoadingCache<UUID, Long> commentCounts;
+
+    public ReelFeedService(
+        ReelService reelService,
+        UserProfileService userProfileService,
+        LikeResourceApi likeResourceApi,
+        CommentResourceApi commentResourceApi,
+        ApplicationProperties applicationProperties,
+        MeterRegistry meterRegistry
+    ) {
+        this.reelService = reelService;
+        this.userProfileService = userProfileService;
+        this.properties = applicationProperties.getReelFeed();
+        this.pool = Executors.newFixedThreadPool(properties.getThreads(), new CustomizableThreadFactory("reel-feed-"));
+        this.executor = task -> pool.execute(new DelegatingSecurityContextRunnable(task));
+        this.likeCounts = newCountCache(likeResourceApi::countLikesParentIdsAndParentType);
+        this.commentCounts = newCountCache(commentResourceApi::countCommentsParentIdsAndParentType);
+        CaffeineCacheMetrics.monitor(meterRegistry, likeCounts, "reel.feed.likes");
+        CaffeineCacheMetrics.monitor(meterRegistry, commentCounts, "reel.feed.comments");
+    }
+
+    private AsyncLoadingCache<UUID, Long> newCountCache(BiFunction<List<UUID>, String, List<Integer>> count) {
+        return Caffeine.newBuilder()
+            .maximumSize(properties.getCountsMaximumSize())
+            .expireAfterWrite(properties.getCountsTtl())
+            .executor(executor)
+            .recordStats()
+            .buildAsync(
+                new CacheLoader<UUID, Long>() {
+                    @Override
+                    public Long load(UUID id) {
+                        return loadAll(Set.of(id)).get(id);
+                    }
+
+                    @Override
+                    public Map<UUID, Long> loadAll(Set<? extends UUID> ids) {
+                        List<UUID> parentIds = new ArrayList<>(ids);
+                        // the counts come back in the order of the ids
+                        List<Integer> counts = count.apply(parentIds, properties.getParentType());
+                        Map<UUID, Long> loaded = new HashMap<>();
+                        for (int i = 0; i < parentIds.size() && i < counts.size(); i++) {
+                            if (counts.get(i) != null) {
+                                loaded.put(parentIds.get(i), counts.get(i).longValue());
+                            }
+                        }
+                        return loaded;
+                    }
+                }
+            );
+    }
+
+    /**
+     * Get a slice of the feed using keyset pagination, newest first.
+     *
+     * @param after the cursor of the last reel of the previous slice, or {@code null} for the first slice.
+     * @param size the maximum number of reels to return.
+     * @return the slice of the feed.
+     */
+    public Slice<ReelFeedItemDTO> getFeed(ReelCursor after, int size) {
+        LOG.debug("Request to get a slice of the feed after : {}", after);
+        Slice<ReelDTO> reels = reelService.findAllAfter(after, size);
+        if (!reels.hasContent()) {
+            return reels.map(reel -> new ReelFeedItemDTO(reel, null, null, null));
+        }
+
+        List<UUID> reelIds = reels.stream().map(ReelDTO::getId).toList();
+        Set<UUID> userIds = reels.stream().map(ReelDTO::getUserId).collect(Collectors.toSet());
+        CompletableFuture<Map<UUID, Long>> likes = likeCounts.getAll(reelIds);
+        CompletableFuture<Map<UUID, Long>> comments = commentCounts.getAll(reelIds);
+        CompletableFuture<Map<UUID, UserProfileDTO>> users = CompletableFuture.supplyAsync(
+            () -> userProfileService.getProfiles(userIds),
+            executor
+        );
+
+        long deadline = System.nanoTime() + properties.getTimeout().toNanos();
+        Map<UUID, Long> likesById = await(likes, deadline, "like counts");
+        Map<UUID, Long> commentsById = await(comments, deadline, "comment counts");
+        Map<UUID, UserProfileDTO> usersById = await(users, deadline, "creators");
+        return reels.map(reel ->
+            new ReelFeedItemDTO(reel, usersById.get(reel.getUserId()), likesById.get(reel.getId()), commentsById.get(reel.getId()))
+        );
+    }
+
+    private static <K, V> Map<K, V> await(CompletableFuture<Map<K, V>> future, long deadline, String what) {
+        try {
+            return future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException | ExecutionException e) {
+            LOG.warn("Serving the feed without {}: {}", what, e.toString());
+            return Map.of();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return Map.of();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+}
@@ -0,0 +1,159 @@
+package com.f4.reel.service;
+
+import com.f4.reel.config.ApplicationProperties;
+import com.f4.reel.service.dto.ReelDTO;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.topic.ITopic;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * In-process cache of the reels read by id, in front of the Hibernate second-level cache.
+ * <p>
+ * The cache is bounded by the estimated size of its entries. Writes invalidate the entry locally right away and, once
+ * the transaction is committed, on every member of the cluster through a Hazelcast topic, so no member keeps serving a
+ * reel older than the database. Entries also expire after a while, as a safety net for lost invalidations.
+ * <p>
+ * Reads inside a read-write transaction bypass the cache: they may see rows the transaction has not committed yet,
+ * which must neither be served to other readers nor hide the transaction's own writes.
+ */
+@Component
+public class ReelNearCache {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ReelNearCache.class);
+
+    static final String INVALIDATION_TOPIC = "reel-near-cache-invalidation";
+
+    /**
+     * Estimated size of a cached reel, without its strings.
+     */
+    private static final int ENTRY_OVERHEAD = 256;
+
+    private final Cache<UUID, ReelDTO> reels;
+
+    private final ITopic<UUID> invalidations;
+
+    public ReelNearCache(ApplicationProperties applicationProperties, HazelcastInstance hazelcastInstance, MeterRegistry meterRegistry) {
+        ApplicationProperties.ReelCache properties = applicationProperties.getReelCache();
+        this.reels = CaffeineCacheMetrics.monitor(
+            meterRegistry,
+            Caffeine.newBuilder()
+                .maximumWeight(properties.getMaximumWeight())
+                .<UUID, ReelDTO>weigher((id, reel) -> weigh(reel))
+                .expireAfterWrite(properties.getTimeToLive())
+                .recordStats()
+                .build(),
+            "reels.near"
+        );
+        this.invalidations = hazelcastInstance.getTopic(INVALIDATION_TOPIC);
+        this.invalidations.addMessageListener(message -> reels.invalidate(message.getMessageObject()));
+    }
+
+    /**
+     * Get a reel, loading it on a miss. Missing reels are not cached.
+     *
+     * @param id the id of the reel.
+     * @param loader the loader of the reel.
+     * @return a copy of the reel.
+     */
+    public Optional<ReelDTO> get(UUID id, Supplier<Optional<ReelDTO>> loader) {
+        if (inWriteTransaction()) {
+            return loader.get();
+        }
+        return Optional.ofNullable(reels.get(id, key -> loader.get().map(ReelNearCache::copy).orElse(null))).map(ReelNearCache::copy);
+    }
+
+    /**
+     * Get several reels, loading all the misses at once. Missing reels are not cached.
+     *
+     * @param ids the ids of the reels.
+     * @param loader the loader of the reels not in the cache, by id.
+     * @return copies of the reels found, by id.
+     */
+    public Map<UUID, ReelDTO> getAll(Collection<UUID> ids, Function<Set<UUID>, Map<UUID, ReelDTO>> loader) {
+        if (inWriteTransaction()) {
+            return new HashMap<>(loader.apply(Set.copyOf(ids)));
+        }
+        Map<UUID, ReelDTO> found = reels.getAll(ids, missing -> {
+            Map<UUID, ReelDTO> loaded = new HashMap<>();
+            loader.apply(Set.copyOf(missing)).forEach((id, reel) -> loaded.put(id, copy(reel)));
+            return loaded;
+        });
+        Map<UUID, ReelDTO> copies = new HashMap<>(found.size() * 2);
+        found.forEach((id, reel) -> copies.put(id, copy(reel)));
+        return copies;
+    }
+
+    /**
+     * Invalidate a reel on every member, after the current transaction is committed if there is one.
+     *
+     * @param id the id of the reel.
+     */
+    public void invalidate(UUID id) {
+        reels.invalidate(id);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(
+                new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        // a reader may have cached the old row before the commit
+                        publish(id);
+                    }
+                }
+            );
+        } else {
+            publish(id);
+        }
+    }
+
+    private static boolean inWriteTransaction() {
+        return (
+            TransactionSynchronizationManager.isActualTransactionActive() && !TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+        );
+    }
+
+    private void publish(UUID id) {
+        reels.invalidate(id);
+        try {
+            invalidations.publish(id);
+        } catch (RuntimeException e) {
+            LOG.warn("Could not publish the invalidation of Reel {}: {}", id, e.getMessage());
+        }
+    }
+
+    private static int weigh(ReelDTO reel) {
+        return ENTRY_OVERHEAD + 2 * (length(reel.getTitle()) + length(reel.getVideoUrl()));
+    }
+
+    private static int length(String value) {
+        return value == null ? 0 : value.length();
+    }
+
+    /**
+     * DTOs are mutable, so callers never share the cached instance.
+     */
+    private static ReelDTO copy(ReelDTO reel) {
+        ReelDTO copy = new ReelDTO();
+        copy.setId(reel.getId());
+        copy.setUserId(reel.getUserId());
+        copy.setTitle(reel.getTitle());
+        copy.setVideoUrl(reel.getVideoUrl());
+        copy.setCreatedAt(reel.getCreatedAt());
+        return copy;
+    }
+}
@@ -0,0 +1,280 @@
+package com.f4.reel.service;
+
+import com.f4.reel.config.ApplicationProperties;
+import com.f4.reel.domain.ReelOutboxDeadLetter;
+import com.f4.reel.domain.ReelOutboxEvent;
+import com.f4.reel.domain.enumeration.ReelOutboxEventType;
+import com.f4.reel.repository.ReelOutboxDeadLetterRepository;
+import com.f4.reel.repository.ReelOutboxRepository;
+import com.f4.reel.repository.search.ReelSearchRepository;
+import com.f4.reel.service.dto.ReelDTO;
+import com.f4.reel.service.mapper.ReelMapper;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cloud.stream.function.StreamBridge;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Transactional outbox for the side effects of {@link com.f4.reel.domain.Reel} writes.
+ * <p>
+ * Writers record an event in the {@code reel_outbox} table inside their own transaction. A relay polls the table,
+ * locks the oldest events (skipping those locked by other instances), applies them to Elasticsearch in one bulk
+ * request, publishes them to Kafka and deletes them, all in one transaction: an event is removed only once both
+ * side effects succeeded, so delivery is at-least-once and the index only ever reflects committed data. The relay is
+ * the only writer of the index outside of rebuilds, and documents are versioned by the id of their event, so relays
+ * holding different events of the same reel cannot apply them out of order.
+ * <p>
+ * The events of a reel whose document Elasticsearch rejected, or whose payload cannot be read, stay in the outbox,
+ * unpublished, and are retried with an exponential backoff; meanwhile the later events of the reel wait behind them,
+ * while the other reels keep flowing. An event rejected too many times is moved to the {@code reel_outbox_dead_letter}
+ * table with its last error and counted by the {@code reel.outbox.dead.letters} metric.
+ */
+@Service
+public class ReelOutboxService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ReelOutboxService.class);
+
+    public static final String HEADER_EVENT_TYPE = "eventType";
+
+    private final ReelOutboxRepository reelOutboxRepository;
+
+    private final ReelOutboxDeadLetterRepository reelOutboxDeadLetterRepository;
+
+    private final ReelSearchRepository reelSearchRepository;
+
+    private final ReelMapper reelMapper;
+
+    private final ObjectMapper objectMapper;
+
+    private final StreamBridge streamBridge;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final ApplicationProperties.Outbox properties;
+
+    private final Counter deadLetters;
+
+    private final ScheduledExecutorService relay = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "reel-outbox-relay");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public ReelOutboxService(
+        ReelOutboxRepository reelOutboxRepository,
+        ReelOutboxDeadLetterRepository reelOutboxDeadLetterRepository,
+        ReelSearchRepository reelSearchRepository,
+        ReelMapper reelMapper,
+        ObjectMapper objectMapper,
+        StreamBridge streamBridge,
+        PlatformTransactionManager transactionManager,
+        ApplicationProperties applicationProperties,
+        MeterRegistry meterRegistry
+    ) {
+        this.reelOutboxRepository = reelOutboxRepository;
+        this.reelOutboxDeadLetterRepository = reelOutboxDeadLetterRepository;
+        this.reelSearchRepository = reelSearchRepository;
+        this.reelMapper = reelMapper;
+        this.objectMapper = objectMapper;
+        this.streamBridge = streamBridge;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.properties = applicationProperties.getOutbox();
+        this.deadLetters = Counter.builder("reel.outbox.dead.letters")
+            .description("Reel outbox events moved to the dead-letter table after too many rejections")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Record that the reel was created or updated. Must be called inside the writing transaction, once the write is
+     * flushed: the event id then follows the order in which concurrent writes of the reel lock its row, so the highest
+     * id always carries the committed state.
+     *
+     * @param reelDTO the reel as committed.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordUpsert(ReelDTO reelDTO) {
+        try {
+            record(reelDTO.getId(), ReelOutboxEventType.UPSERTED, objectMapper.writeValueAsString(reelDTO));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize reel " + reelDTO.getId() + " for the outbox", e);
+        }
+    }
+
+    /**
+     * Record that the reel was deleted. Must be called inside the writing transaction, once the delete is flushed.
+     *
+     * @param id the id of the deleted reel.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordDelete(UUID id) {
+        record(id, ReelOutboxEventType.DELETED, null);
+    }
+
+    private void record(UUID id, ReelOutboxEventType eventType, String payload) {
+        reelOutboxRepository.save(new ReelOutboxEvent().aggregateId(id).eventType(eventType).payload(payload).createdAt(Instant.now()));
+    }
+
+    /**
+     * Relay pending events until the outbox is drained.
+     *
+     * @return the number of events relayed.
+     */
+    public int relayPending() {
+        int total = 0;
+        Relayed relayed;
+        do {
+            relayed = transactionTemplate.execute(status -> relayBatch());
+            total += relayed.acknowledged();
+            // rejected events are not due again before their backoff, so the next batch holds later events
+        } while (relayed.locked() >= properties.getBatchSize());
+        return total;
+    }
+
+    private record Relayed(int locked, int acknowledged) {}
+
+    private Relayed relayBatch() {
+        Instant now = Instant.now();
+        List<ReelOutboxEvent> events = reelOutboxRepository.findNextBatchForUpdate(now, PageRequest.of(0, properties.getBatchSize()));
+        if (events.isEmpty()) {
+            return new Relayed(0, 0);
+        }
+
+        // only the latest state of each reel matters to the index, versioned by its event id so that a relay holding
+        // older events of the same reel cannot overwrite it
+        Map<UUID, ReelOutboxEvent> latest = new LinkedHashMap<>();
+        events.forEach(event -> latest.put(event.getAggregateId(), event));
+        Map<UUID, String> rejected = new HashMap<>();
+        for (ReelOutboxEvent event : latest.values()) {
+            if (event.getEventType() == ReelOutboxEventType.DELETED) {
+                reelSearchRepository.deleteFromIndexById(event.getAggregateId(), event.getId());
+            } else {
+                try {
+                    ReelDTO reelDTO = objectMapper.readValue(event.getPayload(), ReelDTO.class);
+                    reelSearchRepository.index(reelMapper.toEntity(reelDTO), event.getId());
+                } catch (JsonProcessingException e) {
+                    rejected.put(event.getAggregateId(), "Corrupted payload: " + e.getOriginalMessage());
+                }
+            }
+        }
+        rejected.putAll(reelSearchRepository.flushIndex());
+        List<ReelOutboxEvent> acknowledged = new ArrayList<>();
+        List<ReelOutboxEvent> failed = new ArrayList<>();
+        events.forEach(event -> (rejected.containsKey(event.getAggregateId()) ? failed : acknowledged).add(event));
+        if (!failed.isEmpty()) {
+            retryLater(failed, rejected, now);
+        }
+
+        if (!properties.getDestination().isBlank()) {
+            for (ReelOutboxEvent event : acknowledged) {
+                boolean sent = streamBridge.send(
+                    properties.getDestination(),
+                    MessageBuilder.withPayload(event.getPayload() != null ? event.getPayload() : "")
+                        .setHeader(KafkaHeaders.KEY, event.getAggregateId().toString())
+                        .setHeader(HEADER_EVENT_TYPE, event.getEventType().name())
+                        .build()
+                );
+                if (!sent) {
+                    throw new IllegalStateException("Could not publish outbox event " + event.getId());
+                }
+            }
+        }
+
+        reelOutboxRepository.deleteAllInBatch(acknowledged);
+        LOG.debug("Relayed {} reel outbox events", acknowledged.size());
+        return new Relayed(events.size(), acknowledged.size());
+    }
+
+    /**
+     * Schedule the retry of rejected events, moving those rejected too many times to the dead-letter table.
+     */
+    private void retryLater(List<ReelOutboxEvent> failed, Map<UUID, String> reasons, Instant now) {
+        List<ReelOutboxEvent> retried = new ArrayList<>();
+        List<ReelOutboxEvent> dead = new ArrayList<>();
+        for (ReelOutboxEvent event : failed) {
+            event.setAttempts(event.getAttempts() + 1);
+            if (event.getAttempts() >= properties.getMaxAttempts()) {
+                dead.add(event);
+            } else {
+                event.setNextAttemptAt(now.plus(backoff(event.getAttempts())));
+                retried.add(event);
+            }
+        }
+        reelOutboxRepository.saveAll(retried);
+        if (!retried.isEmpty()) {
+            LOG.warn("Retrying later {} reel outbox events whose reel was rejected: {}", retried.size(), reasons);
+        }
+        if (!dead.isEmpty()) {
+            reelOutboxDeadLetterRepository.saveAll(
+                dead.stream().map(event -> toDeadLetter(event, reasons.get(event.getAggregateId()), now)).toList()
+            );
+            reelOutboxRepository.deleteAllInBatch(dead);
+            deadLetters.increment(dead.size());
+            LOG.error("Moved {} reel outbox events to the dead-letter table after {} attempts", dead.size(), properties.getMaxAttempts());
+        }
+    }
+
+    private Duration backoff(int attempts) {
+        Duration backoff = properties.getRetryBackoff().multipliedBy(1L << Math.min(attempts - 1, 30));
+        return backoff.compareTo(properties.getMaxRetryBackoff()) < 0 ? backoff : properties.getMaxRetryBackoff();
+    }
+
+    private static ReelOutboxDeadLetter toDeadLetter(ReelOutboxEvent event, String error, Instant now) {
+        return new ReelOutboxDeadLetter()
+            .id(event.getId())
+            .aggregateId(event.getAggregateId())
+            .eventType(event.getEventType())
+            .payload(event.getPayload())
+            .createdAt(event.getCreatedAt())
+            .attempts(event.getAttempts())
+            .error(error != null && error.length() > 1000 ? error.substring(0, 1000) : error)
+            .deadLetteredAt(now);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void startRelay() {
+        long interval = properties.getPollInterval().toMillis();
+        relay.scheduleWithFixedDelay(
+            () -> {
+                try {
+                    relayPending();
+                } catch (RuntimeException e) {
+                    LOG.warn("Reel outbox relay failed, will retry: {}", e.getMessage());
+                }
+            },
+            interval,
+            interval,
+            TimeUnit.MILLISECONDS
+        );
+        LOG.info("Started reel outbox relay, polling every {} ms", interval);
+    }
+
+    @PreDestroy
+    public void stopRelay() {
+        relay.shutdown();
+    }
+}
@@ -1,10 +1,13 @@
 package com.f4.reel.service;
 
+import com.f4.reel.service.dto.ReelCursor;
 import com.f4.reel.service.dto.ReelDTO;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 
 /**
  * Service Interface for managing {@link com.f4.reel.domain.Reel}.
@@ -18,6 +21,14 @@ public interface ReelService {
      */
     ReelDTO save(ReelDTO reelDTO);
 
+    /**
+     * Save several reels in one transaction, with batched inserts.
+     *
+     * @param reelDTOs the entities to save.
+     * @return the persisted entities, in the same order.
+     */
+    List<ReelDTO> saveAll(List<ReelDTO> reelDTOs);
+
     /**
      * Updates a reel.
      *
@@ -42,6 +53,26 @@ public interface ReelService {
      */
     Page<ReelDTO> findAll(Pageable pageable);
 
+    /**
+     * Get a slice of reels using keyset pagination, newest first.
+     * No count query is issued, so every slice costs the same regardless of depth.
+     *
+     * @param after the cursor of the last reel of the previous slice, or {@code null} for the first slice.
+     * @param size the maximum number of reels to return.
+     * @return the slice of entities.
+     */
+    Slice<ReelDTO> findAllAfter(ReelCursor after, int size);
+
+    /**
+     * Get a slice of the reels of a user using keyset pagination, newest first.
+     *
+     * @param userId the id of the user.
+     * @param after the cursor of the last reel of the previous slice, or {@code null} for the first slice.
+     * @param size the maximum number of reels to return.
+     * @return the slice of entities.
+     */
+    Slice<ReelDTO> findAllByUserAfter(UUID userId, ReelCursor after, int size);
+
     /**
      * Get the "id" reel.
      *
@@ -50,6 +81,14 @@ public interface ReelService {
      */
     Optional<ReelDTO> findOne(UUID id);
 
+    /**
+     * Get several reels by id, the cached ones from the cache and the others with a single query.
+     *
+     * @param ids the ids of the entities.
+     * @return the entities found, in the order of their first id in {@code ids}.
+     */
+    List<ReelDTO> findAllById(List<UUID> ids);
+
     /**
      * Delete the "id" reel.
      *
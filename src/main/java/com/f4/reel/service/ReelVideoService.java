@@ -0,0 +1,138 @@
+package com.f4.reel.service;
+
+import com.f4.reel.config.ApplicationProperties;
+import com.f4.reel.service.dto.ReelDTO;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Optional;
+import java.util.UUID;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+/**
+ * Playback of the videos of the reels, by byte range.
+ * <p>
+ * Ranges are read from MinIO as they are written to the client, through a fixed-size buffer, so no video is ever held
+ * in memory. The leading bytes of the videos, which every player requests first, are kept in a hot-segment cache
+ * bounded by total size; its frequency-based admission keeps the popular reels in. The metadata of the videos is
+ * cached too, since stored videos are never modified in place.
+ */
+@Service
+public class ReelVideoService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ReelVideoService.class);
+
+    private final ReelService reelService;
+
+    private final MinioStorageService minioStorageService;
+
+    private final ApplicationProperties.ReelStream properties;
+
+    private final Cache<String, MinioStorageService.ObjectStat> stats;
+
+    private final Cache<String, byte[]> hotSegments;
+
+    public ReelVideoService(
+        ReelService reelService,
+        MinioStorageService minioStorageService,
+        ApplicationProperties applicationProperties,
+        MeterRegistry meterRegistry
+    ) {
+        this.reelService = reelService;
+        this.minioStorageService = minioStorageService;
+        this.properties = applicationProperties.getReelStream();
+        this.stats = Caffeine.newBuilder().maximumSize(10_000).expireAfterAccess(properties.getCacheTtl()).build();
+        this.hotSegments = CaffeineCacheMetrics.monitor(
+            meterRegistry,
+            Caffeine.newBuilder()
+                .maximumWeight(properties.getHotCacheSize())
+                .<String, byte[]>weigher((key, segment) -> segment.length)
+                .expireAfterAccess(properties.getCacheTtl())
+                .recordStats()
+                .build(),
+            "reel.stream.hot"
+        );
+    }
+
+    /**
+     * Get the video of a reel.
+     *
+     * @param reelId the id of the reel.
+     * @return the metadata of the video, if the reel exists and its video is stored in MinIO.
+     */
+    public Optional<MinioStorageService.ObjectStat> findVideo(UUID reelId) throws IOException {
+        Optional<String> objectName = reelService.findOne(reelId).map(ReelDTO::getVideoUrl).flatMap(minioStorageService::objectNameOf);
+        if (objectName.isEmpty()) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.ofNullable(
+                stats.get(objectName.get(), name -> {
+                    try {
+                        return minioStorageService.stat(name).orElse(null);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                })
+            );
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Write a byte range of a video.
+     *
+     * @param video the video.
+     * @param offset the offset of the first byte.
+     * @param length the number of bytes.
+     * @param out the stream to write to.
+     */
+    public void write(MinioStorageService.ObjectStat video, long offset, long length, OutputStream out) throws IOException {
+        if (length <= 0) {
+            return;
+        }
+        if (offset < properties.getHotSegmentSize()) {
+            byte[] head = hotSegment(video);
+            int count = (int) Math.min(head.length - offset, length);
+            if (count > 0) {
+                out.write(head, (int) offset, count);
+                offset += count;
+                length -= count;
+            }
+        }
+        if (length <= 0) {
+            return;
+        }
+        try (InputStream in = minioStorageService.open(video.objectName(), offset, length)) {
+            byte[] buffer = new byte[properties.getBufferSize()];
+            int read;
+            while ((read = in.read(buffer)) >= 0) {
+                out.write(buffer, 0, read);
+            }
+        }
+    }
+
+    private byte[] hotSegment(MinioStorageService.ObjectStat video) throws IOException {
+        try {
+            return hotSegments.get(video.objectName() + ":" + video.etag(), key -> {
+                int size = (int) Math.min(video.size(), properties.getHotSegmentSize());
+                try (InputStream in = minioStorageService.open(video.objectName(), 0, size)) {
+                    LOG.debug("Caching the first {} bytes of {}", size, video.objectName());
+                    return in.readNBytes(size);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+}
@@ -0,0 +1,203 @@
+package com.f4.reel.service;
+
+import com.f4.reel.client.api.KeycloakUserResourceApi;
+import com.f4.reel.client.api.UserResourceApi;
+import com.f4.reel.client.model.KeycloakUserDTO;
+import com.f4.reel.client.model.RedisUserDTO;
+import com.f4.reel.client.model.UserDTO;
+import com.f4.reel.config.ApplicationProperties;
+import com.f4.reel.security.SecurityUtils;
+import com.f4.reel.service.dto.UserProfileDTO;
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.concurrent.DelegatingSecurityContextRunnable;
+import org.springframework.stereotype.Service;
+
+/**
+ * Cache-aside access to the users of the {@code msuser} service.
+ * <p>
+ * Profiles are loaded in batches: all the misses of a lookup go in a single call to the service. A profile older than
+ * {@code refreshAfter} is reloaded in the background on its next read while the cached one keeps being served, and a
+ * lookup waits at most {@code lookupTimeout} for the service before answering with whatever is cached, however stale.
+ * Only profiles older than {@code expireAfter} are no longer served. Loads run with the security context of the read
+ * that triggered them, so they carry the caller's token.
+ * <p>
+ * The profiles only hold the public part of a user (id, username and avatar), which {@code msuser} serves to any
+ * authenticated caller, so they are shared by all the callers. The Keycloak users and the list of all the users hold
+ * private fields, such as the email, whose visibility depends on the caller: they are cached per caller, so a caller
+ * is only ever served what was loaded with its own token.
+ */
+@Service
+public class UserProfileService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(UserProfileService.class);
+
+    /**
+     * Maximum number of callers whose list of all the users is cached.
+     */
+    private static final long MAX_ALL_USERS_CALLERS = 100;
+
+    private final ApplicationProperties.UserProfileCache properties;
+
+    private final ExecutorService pool;
+
+    private final AsyncLoadingCache<UUID, UserProfileDTO> profiles;
+
+    private final AsyncLoadingCache<CallerKey<UUID>, KeycloakUserDTO> keycloakUsers;
+
+    /**
+     * The list of all the users, by caller.
+     */
+    private final AsyncLoadingCache<String, List<UserDTO>> allUsers;
+
+    /**
+     * A key of a cache whose values depend on the caller they were loaded for.
+     */
+    private record CallerKey<K>(String caller, K key) {}
+
+    public UserProfileService(
+        UserResourceApi userResourceApi,
+        KeycloakUserResourceApi keycloakUserResourceApi,
+        ApplicationProperties applicationProperties,
+        MeterRegistry meterRegistry
+    ) {
+        this.properties = applicationProperties.getUserProfileCache();
+        this.pool = Executors.newFixedThreadPool(properties.getLookupThreads(), new CustomizableThreadFactory("user-profile-"));
+        Executor executor = task -> pool.execute(new DelegatingSecurityContextRunnable(task));
+
+        this.profiles = newCache(executor, properties.getMaximumSize()).buildAsync(
+            new CacheLoader<>() {
+                @Override
+                public UserProfileDTO load(UUID id) {
+                    return loadAll(Set.of(id)).get(id);
+                }
+
+                @Override
+                public Map<UUID, UserProfileDTO> loadAll(Set<? extends UUID> ids) {
+                    LOG.debug("Loading {} user profiles", ids.size());
+                    Map<UUID, UserProfileDTO> loaded = new HashMap<>();
+                    for (RedisUserDTO user : userResourceApi.getUsersFromRedisPost(new ArrayList<>(ids))) {
+                        loaded.put(user.getId(), new UserProfileDTO(user.getId(), user.getUsername(), user.getUserAvatar()));
+                    }
+                    return loaded;
+                }
+            }
+        );
+        this.keycloakUsers = newCache(executor, properties.getMaximumSize()).buildAsync(key ->
+            keycloakUserResourceApi.getKeycloakUser(key.key())
+        );
+        this.allUsers = newCache(executor, MAX_ALL_USERS_CALLERS).buildAsync(caller -> List.copyOf(userResourceApi.getAllUsers()));
+        CaffeineCacheMetrics.monitor(meterRegistry, profiles, "user.profiles");
+        CaffeineCacheMetrics.monitor(meterRegistry, keycloakUsers, "user.keycloak");
+    }
+
+    private Caffeine<Object, Object> newCache(Executor executor, long maximumSize) {
+        return Caffeine.newBuilder()
+            .maximumSize(maximumSize)
+            .refreshAfterWrite(properties.getRefreshAfter())
+            .expireAfterWrite(properties.getExpireAfter())
+            .executor(executor)
+            .recordStats();
+    }
+
+    /**
+     * Get the profile of a user.
+     *
+     * @param id the id of the user.
+     * @return the profile, if the user exists and either its profile is cached or the service answered in time.
+     */
+    public Optional<UserProfileDTO> getProfile(UUID id) {
+        return Optional.ofNullable(getProfiles(List.of(id)).get(id));
+    }
+
+    /**
+     * Get the profiles of several users, loading all the misses in a single call.
+     *
+     * @param ids the ids of the users.
+     * @return the profiles found, by id: the users not cached are missing if the service does not answer in time.
+     */
+    public Map<UUID, UserProfileDTO> getProfiles(Collection<UUID> ids) {
+        if (ids.isEmpty()) {
+            return Map.of();
+        }
+        try {
+            return profiles.getAll(ids).get(properties.getLookupTimeout().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException | ExecutionException e) {
+            LOG.warn("Could not load user profiles in time, serving the cached ones: {}", e.toString());
+            return profiles.synchronous().getAllPresent(ids);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return profiles.synchronous().getAllPresent(ids);
+        }
+    }
+
+    /**
+     * Get the Keycloak user of a user. The returned instance is shared and must not be modified.
+     *
+     * @param id the id of the Keycloak user.
+     * @return the Keycloak user, if it exists and either it is cached or the service answered in time.
+     */
+    public Optional<KeycloakUserDTO> getKeycloakUser(UUID id) {
+        CallerKey<UUID> key = new CallerKey<>(currentCaller(), id);
+        CompletableFuture<KeycloakUserDTO> user = keycloakUsers.get(key);
+        try {
+            return Optional.ofNullable(user.get(properties.getLookupTimeout().toMillis(), TimeUnit.MILLISECONDS));
+        } catch (TimeoutException | ExecutionException e) {
+            LOG.warn("Could not load Keycloak user {} in time: {}", id, e.toString());
+            return Optional.ofNullable(keycloakUsers.synchronous().getIfPresent(key));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return Optional.ofNullable(keycloakUsers.synchronous().getIfPresent(key));
+        }
+    }
+
+    /**
+     * Get all the users, from the cache when possible. The returned users are shared and must not be modified.
+     *
+     * @return the users, or an empty list if none are cached for the caller and the service does not answer in time.
+     */
+    public List<UserDTO> getAllUsers() {
+        String caller = currentCaller();
+        CompletableFuture<List<UserDTO>> users = allUsers.get(caller);
+        try {
+            return users.get(properties.getLookupTimeout().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException | ExecutionException e) {
+            LOG.warn("Could not load the users in time, serving the cached ones: {}", e.toString());
+            return Optional.ofNullable(allUsers.synchronous().getIfPresent(caller)).orElse(List.of());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return Optional.ofNullable(allUsers.synchronous().getIfPresent(caller)).orElse(List.of());
+        }
+    }
+
+    private static String currentCaller() {
+        return SecurityUtils.getCurrentUserLogin().orElse("");
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+}
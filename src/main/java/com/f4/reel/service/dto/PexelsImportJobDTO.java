@@ -0,0 +1,135 @@
+package com.f4.reel.service.dto;
+
+import java.io.Serializable;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * A snapshot of the progress of a Pexels import job.
+ */
+public class PexelsImportJobDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    public enum Status {
+        RUNNING,
+        COMPLETED,
+        FAILED,
+    }
+
+    private UUID id;
+
+    private Status status;
+
+    private int total;
+
+    private int stored;
+
+    private int created;
+
+    private int failed;
+
+    private Instant startedAt;
+
+    private Instant finishedAt;
+
+    private List<String> errors;
+
+    public UUID getId() {
+        return id;
+    }
+
+    public void setId(UUID id) {
+        this.id = id;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public void setStatus(Status status) {
+        this.status = status;
+    }
+
+    /**
+     * @return the number of assets to import.
+     */
+    public int getTotal() {
+        return total;
+    }
+
+    public void setTotal(int total) {
+        this.total = total;
+    }
+
+    /**
+     * @return the number of assets stored in MinIO so far.
+     */
+    public int getStored() {
+        return stored;
+    }
+
+    public void setStored(int stored) {
+        this.stored = stored;
+    }
+
+    /**
+     * @return the number of reels created so far.
+     */
+    public int getCreated() {
+        return created;
+    }
+
+    public void setCreated(int created) {
+        this.created = created;
+    }
+
+    /**
+     * @return the number of assets that could not be imported.
+     */
+    public int getFailed() {
+        return failed;
+    }
+
+    public void setFailed(int failed) {
+        this.failed = failed;
+    }
+
+    public Instant getStartedAt() {
+        return startedAt;
+    }
+
+    public void setStartedAt(Instant startedAt) {
+        this.startedAt = startedAt;
+    }
+
+    public Instant getFinishedAt() {
+        return finishedAt;
+    }
+
+    public void setFinishedAt(Instant finishedAt) {
+        this.finishedAt = finishedAt;
+    }
+
+    public List<String> getErrors() {
+        return errors;
+    }
+
+    public void setErrors(List<String> errors) {
+        this.errors = errors;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "PexelsImportJobDTO{" +
+            "id='" + getId() + "'" +
+            ", status='" + getStatus() + "'" +
+            ", total=" + getTotal() +
+            ", stored=" + getStored() +
+            ", created=" + getCreated() +
+            ", failed=" + getFailed() +
+            "}";
+    }
+}
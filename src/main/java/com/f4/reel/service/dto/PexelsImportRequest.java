@@ -0,0 +1,75 @@
+package com.f4.reel.service.dto;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * A request to import Pexels videos as reels: either the results of a search query, or a list of Pexels video file
+ * URLs.
+ */
+public class PexelsImportRequest implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * The user the reels are created for.
+     */
+    @NotNull
+    private UUID userId;
+
+    private String query;
+
+    @Min(1)
+    @Max(80)
+    private int perPage = 15;
+
+    private List<String> urls = new ArrayList<>();
+
+    public UUID getUserId() {
+        return userId;
+    }
+
+    public void setUserId(UUID userId) {
+        this.userId = userId;
+    }
+
+    public String getQuery() {
+        return query;
+    }
+
+    public void setQuery(String query) {
+        this.query = query;
+    }
+
+    public int getPerPage() {
+        return perPage;
+    }
+
+    public void setPerPage(int perPage) {
+        this.perPage = perPage;
+    }
+
+    public List<String> getUrls() {
+        return urls;
+    }
+
+    public void setUrls(List<String> urls) {
+        this.urls = urls;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "PexelsImportRequest{" +
+            "userId='" + getUserId() + "'" +
+            ", query='" + getQuery() + "'" +
+            ", perPage=" + getPerPage() +
+            ", urls=" + getUrls().size() +
+            "}";
+    }
+}
@@ -0,0 +1,104 @@
+package com.f4.reel.service.dto;
+
+import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * An opaque keyset cursor pointing at the last {@link ReelDTO} of a page.
+ * <p>
+ * Reels are ordered by {@code (createdAt DESC, id DESC)}, so the next page starts strictly after this position.
+ * The encoded form is URL-safe Base64 and must be treated as opaque by clients.
+ */
+public final class ReelCursor implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final char SEPARATOR = '|';
+
+    private final Instant createdAt;
+
+    private final UUID id;
+
+    public ReelCursor(Instant createdAt, UUID id) {
+        this.createdAt = Objects.requireNonNull(createdAt, "createdAt");
+        this.id = Objects.requireNonNull(id, "id");
+    }
+
+    /**
+     * Build the cursor positioned on the given reel.
+     *
+     * @param reelDTO the last reel of the current page.
+     * @return the cursor.
+     */
+    public static ReelCursor of(ReelDTO reelDTO) {
+        return new ReelCursor(reelDTO.getCreatedAt(), reelDTO.getId());
+    }
+
+    /**
+     * Decode a cursor previously produced by {@link #encode()}.
+     *
+     * @param token the opaque cursor.
+     * @return the cursor.
+     * @throws IllegalArgumentException if the token is not a valid cursor.
+     */
+    public static ReelCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(SEPARATOR);
+            if (separator < 0) {
+                throw new IllegalArgumentException("Malformed cursor");
+            }
+            return new ReelCursor(Instant.parse(raw.substring(0, separator)), UUID.fromString(raw.substring(separator + 1)));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + token, e);
+        }
+    }
+
+    /**
+     * Encode this cursor into its opaque, URL-safe form.
+     *
+     * @return the encoded cursor.
+     */
+    public String encode() {
+        String raw = createdAt.toString() + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public UUID getId() {
+        return id;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof ReelCursor)) {
+            return false;
+        }
+        ReelCursor that = (ReelCursor) o;
+        return createdAt.equals(that.createdAt) && id.equals(that.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(createdAt, id);
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "ReelCursor{" +
+            "createdAt='" + getCreatedAt() + "'" +
+            ", id='" + getId() + "'" +
+            "}";
+    }
+}
@@ -0,0 +1,92 @@
+package com.f4.reel.service.dto;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * A {@link ReelDTO} of the feed, with its creator and its like and comment counts.
+ * <p>
+ * Modelled on the {@code FeedWithOtherDTO} of the feed service. The creator and the counts are {@code null} when the
+ * service owning them could not be reached in time.
+ */
+public class ReelFeedItemDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private ReelDTO reel;
+
+    private UserProfileDTO user;
+
+    private Long likeCount;
+
+    private Long commentCount;
+
+    public ReelFeedItemDTO() {}
+
+    public ReelFeedItemDTO(ReelDTO reel, UserProfileDTO user, Long likeCount, Long commentCount) {
+        this.reel = reel;
+        this.user = user;
+        this.likeCount = likeCount;
+        this.commentCount = commentCount;
+    }
+
+    public ReelDTO getReel() {
+        return reel;
+    }
+
+    public void setReel(ReelDTO reel) {
+        this.reel = reel;
+    }
+
+    public UserProfileDTO getUser() {
+        return user;
+    }
+
+    public void setUser(UserProfileDTO user) {
+        this.user = user;
+    }
+
+    public Long getLikeCount() {
+        return likeCount;
+    }
+
+    public void setLikeCount(Long likeCount) {
+        this.likeCount = likeCount;
+    }
+
+    public Long getCommentCount() {
+        return commentCount;
+    }
+
+    public void setCommentCount(Long commentCount) {
+        this.commentCount = commentCount;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof ReelFeedItemDTO)) {
+            return false;
+        }
+        ReelFeedItemDTO that = (ReelFeedItemDTO) o;
+        return Objects.equals(reel, that.reel);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(reel);
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "ReelFeedItemDTO{" +
+            "reel=" + getReel() +
+            ", user=" + getUser() +
+            ", likeCount=" + getLikeCount() +
+            ", commentCount=" + getCommentCount() +
+            "}";
+    }
+}
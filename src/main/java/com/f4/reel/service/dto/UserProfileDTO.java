@@ -0,0 +1,13 @@
+package com.f4.reel.service.dto;
+
+import java.io.Serializable;
+import java.util.UUID;
+
+/**
+ * The public profile of a user of the {@code msuser} service, as shown next to the reels.
+ *
+ * @param id the id of the user.
+ * @param username the username.
+ * @param avatar the URL of the avatar, if any.
+ */
+public record UserProfileDTO(UUID id, String username, String avatar) implements Serializable {}
@@ -1,9 +1,11 @@
 package com.f4.reel.service.impl;
 
 import com.fasterxml.jackson.databind.JsonNode;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import io.minio.MinioClient;
-import io.minio.PutObjectArgs;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
@@ -12,12 +14,17 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.web.multipart.MultipartFile;
+import com.f4.reel.config.ApplicationProperties;
+import com.f4.reel.service.MediaDedupService;
 import com.f4.reel.service.PexelsService;
 
+import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -31,28 +38,55 @@ public class PexelsServiceImpl implements PexelsService {
     @Value("${pexels.base-url}")
     private String baseUrl;
 
-    @Value("${minio.endpoint}")
-    private String minioEndpoint;
-
-    @Value("${minio.access-key}")
-    private String minioAccessKey;
-
-    @Value("${minio.secret-key}")
-    private String minioSecretKey;
-
-    @Value("${minio.bucket-name}")
-    private String bucketName;
-
     private final RestTemplate restTemplate;
     private final ObjectMapper objectMapper;
-
-    public PexelsServiceImpl(RestTemplate restTemplate, ObjectMapper objectMapper) {
+    private final MediaDedupService mediaDedupService;
+
+    /**
+     * Search results by endpoint, query and page size. Concurrent misses on
+     * the same key wait for a single call to the Pexels API, and failed calls
+     * are not cached.
+     */
+    private final Cache<SearchKey, List<?>> searchCache;
+
+    public PexelsServiceImpl(RestTemplate restTemplate, ObjectMapper objectMapper,
+            MediaDedupService mediaDedupService, ApplicationProperties applicationProperties,
+            MeterRegistry meterRegistry) {
         this.restTemplate = restTemplate;
         this.objectMapper = objectMapper;
+        this.mediaDedupService = mediaDedupService;
+        ApplicationProperties.PexelsSearchCache cacheProperties = applicationProperties.getPexelsSearchCache();
+        this.searchCache = CaffeineCacheMetrics.monitor(meterRegistry,
+                Caffeine.newBuilder()
+                        .maximumSize(cacheProperties.getMaximumSize())
+                        .expireAfterWrite(cacheProperties.getTimeToLive())
+                        .recordStats()
+                        .<SearchKey, List<?>>build(),
+                "pexels.search");
     }
 
     @Override
+    @SuppressWarnings("unchecked")
     public List<String> searchImages(String query, int perPage) {
+        return (List<String>) searchCache.get(new SearchKey("photos", normalize(query), perPage),
+                key -> List.copyOf(fetchImages(key.query(), key.perPage())));
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<Map<String, Object>> searchVideos(String query, int perPage) {
+        return (List<Map<String, Object>>) searchCache.get(new SearchKey("videos", normalize(query), perPage),
+                key -> List.copyOf(fetchVideos(key.query(), key.perPage())));
+    }
+
+    private static String normalize(String query) {
+        return query == null ? "" : query.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private record SearchKey(String endpoint, String query, int perPage) {
+    }
+
+    private List<String> fetchImages(String query, int perPage) {
         List<String> imageUrls = new ArrayList<>();
         try {
             HttpHeaders headers = new HttpHeaders();
@@ -83,28 +117,9 @@ public class PexelsServiceImpl implements PexelsService {
             HttpHeaders headers = new HttpHeaders();
             headers.set("Authorization", apiKey);
 
-            ResponseEntity<byte[]> response = restTemplate.exchange(
-                    imageUrl,
-                    HttpMethod.GET,
-                    new HttpEntity<>(headers),
-                    byte[].class);
-
             String fileName = UUID.randomUUID().toString() + ".jpg";
 
-            MinioClient minioClient = MinioClient.builder()
-                    .endpoint(minioEndpoint)
-                    .credentials(minioAccessKey, minioSecretKey)
-                    .build();
-
-            minioClient.putObject(
-                    PutObjectArgs.builder()
-                            .bucket(bucketName)
-                            .object(fileName)
-                            .stream(new java.io.ByteArrayInputStream(response.getBody()), response.getBody().length, -1)
-                            .contentType("image/jpeg")
-                            .build());
-
-            return minioEndpoint + "/" + bucketName + "/" + fileName;
+            return streamToMinio(imageUrl, imageUrl, headers, fileName, "image/jpeg");
         } catch (Exception e) {
             throw new RuntimeException("Error downloading and storing image", e);
         }
@@ -115,20 +130,9 @@ public class PexelsServiceImpl implements PexelsService {
         try {
             String fileName = UUID.randomUUID().toString() + "_" + file.getOriginalFilename();
 
-            MinioClient minioClient = MinioClient.builder()
-                    .endpoint(minioEndpoint)
-                    .credentials(minioAccessKey, minioSecretKey)
-                    .build();
-
-            minioClient.putObject(
-                    PutObjectArgs.builder()
-                            .bucket(bucketName)
-                            .object(fileName)
-                            .stream(file.getInputStream(), file.getSize(), -1)
-                            .contentType(file.getContentType())
-                            .build());
-
-            return minioEndpoint + "/" + bucketName + "/" + fileName;
+            try (InputStream content = file.getInputStream()) {
+                return mediaDedupService.store(null, fileName, content, file.getSize(), file.getContentType());
+            }
         } catch (Exception e) {
             throw new RuntimeException("Error uploading image to MinIO", e);
         }
@@ -145,6 +149,13 @@ public class PexelsServiceImpl implements PexelsService {
             }
             String photoId = matcher.group(1);
 
+            // Skip the API call and the download if the photo is already stored
+            String source = "pexels:photo:" + photoId;
+            Optional<String> storedUrl = mediaDedupService.findBySource(source);
+            if (storedUrl.isPresent()) {
+                return storedUrl.get();
+            }
+
             // Get photo details from Pexels API
             HttpHeaders headers = new HttpHeaders();
             headers.set("Authorization", apiKey);
@@ -164,36 +175,15 @@ public class PexelsServiceImpl implements PexelsService {
             String originalImageUrl = photoData.path("src").path("original").asText();
 
             // Download and store the image
-            ResponseEntity<byte[]> imageResponse = restTemplate.exchange(
-                    originalImageUrl,
-                    HttpMethod.GET,
-                    new HttpEntity<>(headers),
-                    byte[].class);
-
             String fileName = "pexels-" + photoId + "-" + UUID.randomUUID().toString() + ".jpg";
 
-            MinioClient minioClient = MinioClient.builder()
-                    .endpoint(minioEndpoint)
-                    .credentials(minioAccessKey, minioSecretKey)
-                    .build();
-
-            minioClient.putObject(
-                    PutObjectArgs.builder()
-                            .bucket(bucketName)
-                            .object(fileName)
-                            .stream(new java.io.ByteArrayInputStream(imageResponse.getBody()),
-                                    imageResponse.getBody().length, -1)
-                            .contentType("image/jpeg")
-                            .build());
-
-            return minioEndpoint + "/" + bucketName + "/" + fileName;
+            return streamToMinio(source, originalImageUrl, headers, fileName, "image/jpeg");
         } catch (Exception e) {
             throw new RuntimeException("Error storing Pexels image: " + e.getMessage(), e);
         }
     }
 
-    @Override
-    public List<Map<String, Object>> searchVideos(String query, int perPage) {
+    private List<Map<String, Object>> fetchVideos(String query, int perPage) {
         List<Map<String, Object>> videoDetails = new ArrayList<>();
         try {
             HttpHeaders headers = new HttpHeaders();
@@ -225,16 +215,17 @@ public class PexelsServiceImpl implements PexelsService {
                     String quality = file.path("quality").asText();
                     videoFiles.put(quality, file.path("link").asText());
                 }
-                videoDetail.put("files", videoFiles);
+                videoDetail.put("files", Map.copyOf(videoFiles));
                 
                 Map<String, String> videoPictures = new HashMap<>();
                 JsonNode pictures = video.path("video_pictures");
                 for (int i = 0; i < pictures.size(); i++) {
                     videoPictures.put("picture_" + i, pictures.path(i).path("picture").asText());
                 }
-                videoDetail.put("pictures", videoPictures);
+                videoDetail.put("pictures", Map.copyOf(videoPictures));
                 
-                videoDetails.add(videoDetail);
+                // shared by the callers through the search cache
+                videoDetails.add(Map.copyOf(videoDetail));
             }
         } catch (Exception e) {
             throw new RuntimeException("Error searching Pexels videos", e);
@@ -249,28 +240,9 @@ public class PexelsServiceImpl implements PexelsService {
             headers.set("User-Agent", 
                     "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/91.0.4472.124 Safari/537.36");
             
-            ResponseEntity<byte[]> response = restTemplate.exchange(
-                videoUrl,
-                HttpMethod.GET,
-                new HttpEntity<>(headers),
-                byte[].class);
-
             String fileName = UUID.randomUUID().toString() + ".mp4";
-            
-            MinioClient minioClient = MinioClient.builder()
-                .endpoint(minioEndpoint)
-                .credentials(minioAccessKey, minioSecretKey)
-                .build();
-
-            minioClient.putObject(
-                PutObjectArgs.builder()
-                    .bucket(bucketName)
-                    .object(fileName)
-                    .stream(new java.io.ByteArrayInputStream(response.getBody()), response.getBody().length, -1)
-                    .contentType("video/mp4")
-                    .build());
-
-            return minioEndpoint + "/" + bucketName + "/" + fileName;
+
+            return streamToMinio(videoUrl, videoUrl, headers, fileName, "video/mp4");
         } catch (Exception e) {
             throw new RuntimeException("Error downloading and storing video", e);
         }
@@ -280,21 +252,10 @@ public class PexelsServiceImpl implements PexelsService {
     public String uploadVideoToMinio(MultipartFile file) {
         try {
             String fileName = "video-" + UUID.randomUUID().toString() + "_" + file.getOriginalFilename();
-            
-            MinioClient minioClient = MinioClient.builder()
-                .endpoint(minioEndpoint)
-                .credentials(minioAccessKey, minioSecretKey)
-                .build();
-
-            minioClient.putObject(
-                PutObjectArgs.builder()
-                    .bucket(bucketName)
-                    .object(fileName)
-                    .stream(file.getInputStream(), file.getSize(), -1)
-                    .contentType(file.getContentType())
-                    .build());
-
-            return minioEndpoint + "/" + bucketName + "/" + fileName;
+
+            try (InputStream content = file.getInputStream()) {
+                return mediaDedupService.store(null, fileName, content, file.getSize(), file.getContentType());
+            }
         } catch (Exception e) {
             throw new RuntimeException("Error uploading video to MinIO", e);
         }
@@ -321,35 +282,41 @@ public class PexelsServiceImpl implements PexelsService {
             headers.set("User-Agent", 
                     "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/91.0.4472.124 Safari/537.36");
             
-            // Download the video
-            ResponseEntity<byte[]> videoResponse = restTemplate.exchange(
-                    pexelsVideoUrl,
-                    HttpMethod.GET,
-                    new HttpEntity<>(headers),
-                    byte[].class);
-            
             // Create a filename that includes video ID and quality
             String fileName = String.format("pexels-video-%s-%s-%s.mp4", 
                     videoId, quality, UUID.randomUUID().toString().substring(0, 8));
             
-            // Upload to MinIO
-            MinioClient minioClient = MinioClient.builder()
-                .endpoint(minioEndpoint)
-                .credentials(minioAccessKey, minioSecretKey)
-                .build();
-            
-            minioClient.putObject(
-                PutObjectArgs.builder()
-                    .bucket(bucketName)
-                    .object(fileName)
-                    .stream(new java.io.ByteArrayInputStream(videoResponse.getBody()),
-                            videoResponse.getBody().length, -1)
-                    .contentType("video/mp4")
-                    .build());
-            
-            return minioEndpoint + "/" + bucketName + "/" + fileName;
+            // Stream the download straight into MinIO
+            return streamToMinio(pexelsVideoUrl, pexelsVideoUrl, headers, fileName, "video/mp4");
         } catch (Exception e) {
             throw new RuntimeException("Error storing Pexels video: " + e.getMessage(), e);
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Pipe the body of a GET request straight into a MinIO upload, see
+     * {@link com.f4.reel.service.MinioStorageService#upload}: only one part
+     * buffer is held per transfer whatever the size of the object. Sources
+     * already stored are not downloaded again, see {@link MediaDedupService}.
+     *
+     * @param source the source of the content, e.g. the Pexels id or the URL
+     * @return the public URL of the stored object
+     */
+    private String streamToMinio(String source, String url, HttpHeaders headers, String objectName,
+            String contentType) {
+        Optional<String> storedUrl = mediaDedupService.findBySource(source);
+        if (storedUrl.isPresent()) {
+            return storedUrl.get();
+        }
+        return restTemplate.execute(
+                url,
+                HttpMethod.GET,
+                request -> request.getHeaders().putAll(headers),
+                response -> {
+                    try (InputStream body = response.getBody()) {
+                        return mediaDedupService.store(source, objectName, body,
+                                response.getHeaders().getContentLength(), contentType);
+                    }
+                });
+    }
+}
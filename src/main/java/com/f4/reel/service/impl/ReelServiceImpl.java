@@ -2,17 +2,29 @@ package com.f4.reel.service.impl;
 
 import com.f4.reel.domain.Reel;
 import com.f4.reel.repository.ReelRepository;
+import com.f4.reel.repository.ReelTimelineRow;
 import com.f4.reel.repository.search.ReelSearchRepository;
+import com.f4.reel.service.ReelNearCache;
+import com.f4.reel.service.ReelOutboxService;
 import com.f4.reel.service.ReelService;
+import com.f4.reel.service.dto.ReelCursor;
 import com.f4.reel.service.dto.ReelDTO;
 import com.f4.reel.service.mapper.ReelMapper;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 /**
@@ -30,29 +42,52 @@ public class ReelServiceImpl implements ReelService {
 
     private final ReelSearchRepository reelSearchRepository;
 
+    private final ReelOutboxService reelOutboxService;
+
+    private final ReelNearCache reelNearCache;
+
     public ReelServiceImpl(ReelRepository reelRepository, ReelMapper reelMapper,
-            ReelSearchRepository reelSearchRepository) {
+            ReelSearchRepository reelSearchRepository, ReelOutboxService reelOutboxService,
+            ReelNearCache reelNearCache) {
         this.reelRepository = reelRepository;
         this.reelMapper = reelMapper;
         this.reelSearchRepository = reelSearchRepository;
+        this.reelOutboxService = reelOutboxService;
+        this.reelNearCache = reelNearCache;
     }
 
     @Override
     public ReelDTO save(ReelDTO reelDTO) {
         LOG.debug("Request to save Reel : {}", reelDTO);
         Reel reel = reelMapper.toEntity(reelDTO);
-        reel = reelRepository.save(reel);
-        reelSearchRepository.index(reel);
-        return reelMapper.toDto(reel);
+        // flushed first: the row lock orders the outbox ids of concurrent writes of the reel as they commit
+        reel = reelRepository.saveAndFlush(reel);
+        ReelDTO result = reelMapper.toDto(reel);
+        reelOutboxService.recordUpsert(result);
+        reelNearCache.invalidate(result.getId());
+        return result;
+    }
+
+    @Override
+    public List<ReelDTO> saveAll(List<ReelDTO> reelDTOs) {
+        LOG.debug("Request to save {} Reels", reelDTOs.size());
+        // new reels are persisted, not merged, so the inserts are flushed in JDBC batches
+        List<ReelDTO> result = reelMapper.toDto(reelRepository.saveAllAndFlush(reelMapper.toEntity(reelDTOs)));
+        result.forEach(reelOutboxService::recordUpsert);
+        // only reels that already had an id can be cached
+        reelDTOs.stream().map(ReelDTO::getId).filter(Objects::nonNull).forEach(reelNearCache::invalidate);
+        return result;
     }
 
     @Override
     public ReelDTO update(ReelDTO reelDTO) {
         LOG.debug("Request to update Reel : {}", reelDTO);
         Reel reel = reelMapper.toEntity(reelDTO);
-        reel = reelRepository.save(reel);
-        reelSearchRepository.index(reel);
-        return reelMapper.toDto(reel);
+        reel = reelRepository.saveAndFlush(reel);
+        ReelDTO result = reelMapper.toDto(reel);
+        reelOutboxService.recordUpsert(result);
+        reelNearCache.invalidate(result.getId());
+        return result;
     }
 
     @Override
@@ -66,12 +101,13 @@ public class ReelServiceImpl implements ReelService {
 
                     return existingReel;
                 })
-                .map(reelRepository::save)
-                .map(savedReel -> {
-                    reelSearchRepository.index(savedReel);
-                    return savedReel;
-                })
-                .map(reelMapper::toDto);
+                .map(reelRepository::saveAndFlush)
+                .map(reelMapper::toDto)
+                .map(result -> {
+                    reelOutboxService.recordUpsert(result);
+                    reelNearCache.invalidate(result.getId());
+                    return result;
+                });
     }
 
     @Override
@@ -83,16 +119,54 @@ public class ReelServiceImpl implements ReelService {
 
     @Override
     @Transactional(readOnly = true)
+    public Slice<ReelDTO> findAllAfter(ReelCursor after, int size) {
+        LOG.debug("Request to get a slice of Reels after : {}", after);
+        Pageable limit = PageRequest.of(0, size);
+        Slice<Reel> slice = after == null
+                ? reelRepository.findAllByOrderByCreatedAtDescIdDesc(limit)
+                : reelRepository.findAllAfter(after.getCreatedAt(), after.getId(), limit);
+        return slice.map(reelMapper::toDto);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Slice<ReelDTO> findAllByUserAfter(UUID userId, ReelCursor after, int size) {
+        LOG.debug("Request to get a slice of the Reels of user {} after : {}", userId, after);
+        Pageable limit = PageRequest.of(0, size);
+        Slice<ReelTimelineRow> slice = after == null
+                ? reelRepository.findTimeline(userId, limit)
+                : reelRepository.findTimelineAfter(userId, after.getCreatedAt(), after.getId(), limit);
+        return slice.map(reelMapper::toDto);
+    }
+
+    /**
+     * Served from the {@link ReelNearCache}: a hit neither starts a transaction nor
+     * borrows a connection, the repository opens its own on a miss.
+     */
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public Optional<ReelDTO> findOne(UUID id) {
         LOG.debug("Request to get Reel : {}", id);
-        return reelRepository.findById(id).map(reelMapper::toDto);
+        return reelNearCache.get(id, () -> reelRepository.findById(id).map(reelMapper::toDto));
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public List<ReelDTO> findAllById(List<UUID> ids) {
+        LOG.debug("Request to get Reels : {}", ids);
+        Map<UUID, ReelDTO> reels = reelNearCache.getAll(ids, missing ->
+                reelMapper.toDto(reelRepository.findAllById(missing)).stream()
+                        .collect(Collectors.toMap(ReelDTO::getId, Function.identity())));
+        return ids.stream().distinct().map(reels::get).filter(Objects::nonNull).toList();
     }
 
     @Override
     public void delete(UUID id) {
         LOG.debug("Request to delete Reel : {}", id);
         reelRepository.deleteById(id);
-        reelSearchRepository.deleteFromIndexById(id);
+        reelRepository.flush();
+        reelOutboxService.recordDelete(id);
+        reelNearCache.invalidate(id);
     }
 
     @Override
@@ -1,6 +1,7 @@
 package com.f4.reel.service.mapper;
 
 import com.f4.reel.domain.Reel;
+import com.f4.reel.repository.ReelTimelineRow;
 import com.f4.reel.service.dto.ReelDTO;
 import org.mapstruct.*;
 
@@ -8,4 +9,6 @@ import org.mapstruct.*;
  * Mapper for the entity {@link Reel} and its DTO {@link ReelDTO}.
  */
 @Mapper(componentModel = "spring")
-public interface ReelMapper extends EntityMapper<ReelDTO, Reel> {}
+public interface ReelMapper extends EntityMapper<ReelDTO, Reel> {
+    ReelDTO toDto(ReelTimelineRow row);
+}
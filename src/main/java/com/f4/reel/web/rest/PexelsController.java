@@ -1,21 +1,40 @@
 package com.f4.reel.web.rest;
 
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import com.f4.reel.service.PexelsImportService;
 import com.f4.reel.service.PexelsService;
+import com.f4.reel.service.dto.PexelsImportJobDTO;
+import com.f4.reel.service.dto.PexelsImportRequest;
+import com.f4.reel.web.rest.errors.BadRequestAlertException;
 
+import jakarta.validation.Valid;
+import tech.jhipster.web.util.ResponseUtil;
+
+import java.net.URI;
 import java.util.List;
 import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.RejectedExecutionException;
 
 @RestController
 @RequestMapping("/api/pexels")
 public class PexelsController {
 
+    /**
+     * Seconds a client is asked to wait before retrying an import refused because too many assets are queued.
+     */
+    private static final String IMPORT_RETRY_AFTER = "30";
+
     private final PexelsService pexelsService;
+    private final PexelsImportService pexelsImportService;
 
-    public PexelsController(PexelsService pexelsService) {
+    public PexelsController(PexelsService pexelsService, PexelsImportService pexelsImportService) {
         this.pexelsService = pexelsService;
+        this.pexelsImportService = pexelsImportService;
     }
 
     @GetMapping("/search")
@@ -72,4 +91,36 @@ public class PexelsController {
         String storedUrl = pexelsService.storePexelsVideo(pexelsVideoUrl);
         return ResponseEntity.ok(storedUrl);
     }
-} 
\ No newline at end of file
+
+    /**
+     * {@code POST /videos/import} : Import the videos of a search, or a list of video files, as reels.
+     *
+     * @param request the import request.
+     * @return the {@link ResponseEntity} with status {@code 202 (Accepted)} and the import job, to be polled at its
+     *         location, or with status {@code 503 (Service Unavailable)} if too many assets are already queued.
+     */
+    @PostMapping("/videos/import")
+    public ResponseEntity<PexelsImportJobDTO> importVideos(@Valid @RequestBody PexelsImportRequest request) {
+        PexelsImportJobDTO job;
+        try {
+            job = pexelsImportService.start(request);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestAlertException(e.getMessage(), "pexelsImport", "invalidimport");
+        } catch (RejectedExecutionException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, IMPORT_RETRY_AFTER).build();
+        }
+        return ResponseEntity.accepted().location(URI.create("/api/pexels/imports/" + job.getId())).body(job);
+    }
+
+    /**
+     * {@code GET /imports/:id} : Get the progress of an import job.
+     *
+     * @param id the id of the import job.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the import job, or with status
+     *         {@code 404 (Not Found)}.
+     */
+    @GetMapping("/imports/{id}")
+    public ResponseEntity<PexelsImportJobDTO> getImport(@PathVariable UUID id) {
+        return ResponseUtil.wrapOrNotFound(pexelsImportService.findJob(id));
+    }
+}
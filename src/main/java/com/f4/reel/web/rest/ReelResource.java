@@ -1,11 +1,14 @@
 package com.f4.reel.web.rest;
 
 import com.f4.reel.repository.ReelRepository;
+import com.f4.reel.service.ReelFeedService;
 import com.f4.reel.service.ReelService;
+import com.f4.reel.service.UserProfileService;
+import com.f4.reel.service.dto.ReelCursor;
 import com.f4.reel.service.dto.ReelDTO;
+import com.f4.reel.service.dto.ReelFeedItemDTO;
 import com.f4.reel.web.rest.errors.BadRequestAlertException;
 import com.f4.reel.web.rest.errors.ElasticsearchExceptionMapper;
-import com.f4.reel.client.api.UserResourceApi;
 import com.f4.reel.client.model.UserDTO;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotNull;
@@ -15,11 +18,13 @@ import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Function;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -39,6 +44,10 @@ public class ReelResource {
 
     private static final String ENTITY_NAME = "msReelReel";
 
+    private static final String HEADER_NEXT_CURSOR = "X-Next-Cursor";
+
+    private static final int MAX_BATCH_SIZE = 100;
+
     @Value("${jhipster.clientApp.name}")
     private String applicationName;
 
@@ -46,12 +55,20 @@ public class ReelResource {
 
     private final ReelRepository reelRepository;
 
-    private final UserResourceApi userResourceApi;
+    private final UserProfileService userProfileService;
+
+    private final ReelFeedService reelFeedService;
 
-    public ReelResource(ReelService reelService, ReelRepository reelRepository, UserResourceApi userResourceApi) {
+    public ReelResource(
+        ReelService reelService,
+        ReelRepository reelRepository,
+        UserProfileService userProfileService,
+        ReelFeedService reelFeedService
+    ) {
         this.reelService = reelService;
         this.reelRepository = reelRepository;
-        this.userResourceApi = userResourceApi;
+        this.userProfileService = userProfileService;
+        this.reelFeedService = reelFeedService;
     }
 
     /**
@@ -144,18 +161,106 @@ public class ReelResource {
 
     /**
      * {@code GET  /reels} : get all the reels.
+     * <p>
+     * When the {@code after} parameter is present (an empty value starts from the newest reel), keyset pagination is
+     * used instead of offset pagination: the reels are ordered newest first, no total count is computed and the
+     * cursor of the next slice is returned in the {@code X-Next-Cursor} header and a {@code Link} header.
      *
+     * @param after the opaque cursor returned with the previous slice, for keyset pagination.
      * @param pageable the pagination information.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of reels in body.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of reels in body,
+     * or with status {@code 400 (Bad Request)} if the cursor is not valid.
      */
     @GetMapping("")
-    public ResponseEntity<List<ReelDTO>> getAllReels(@org.springdoc.core.annotations.ParameterObject Pageable pageable) {
+    public ResponseEntity<List<ReelDTO>> getAllReels(
+        @RequestParam(value = "after", required = false) String after,
+        @org.springdoc.core.annotations.ParameterObject Pageable pageable
+    ) {
+        if (after != null) {
+            return getReelsAfter(after, pageable.getPageSize());
+        }
         LOG.debug("REST request to get a page of Reels");
         Page<ReelDTO> page = reelService.findAll(pageable);
         HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
         return ResponseEntity.ok().headers(headers).body(page.getContent());
     }
 
+    private ResponseEntity<List<ReelDTO>> getReelsAfter(String after, int size) {
+        LOG.debug("REST request to get a slice of Reels after cursor : {}", after);
+        return sliceResponse(reelService.findAllAfter(decodeCursor(after), size));
+    }
+
+    /**
+     * {@code GET  /reels/by-user/:userId} : get the reels of a user, newest first.
+     * <p>
+     * Keyset pagination is always used, as for {@code GET /reels?after=}: the cursor of the next slice is returned in
+     * the {@code X-Next-Cursor} header and a {@code Link} header.
+     *
+     * @param userId the id of the user.
+     * @param after the opaque cursor returned with the previous slice, absent or empty for the first slice.
+     * @param pageable the pagination information, only the page size is used.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of reels in body,
+     * or with status {@code 400 (Bad Request)} if the cursor is not valid.
+     */
+    @GetMapping("/by-user/{userId}")
+    public ResponseEntity<List<ReelDTO>> getReelsByUser(
+        @PathVariable("userId") UUID userId,
+        @RequestParam(value = "after", required = false) String after,
+        @org.springdoc.core.annotations.ParameterObject Pageable pageable
+    ) {
+        LOG.debug("REST request to get a slice of the Reels of user {} after cursor : {}", userId, after);
+        return sliceResponse(reelService.findAllByUserAfter(userId, decodeCursor(after), pageable.getPageSize()));
+    }
+
+    /**
+     * {@code GET  /reels/feed} : get the feed, newest reels first, with their creators and their like and comment counts.
+     * <p>
+     * Keyset pagination is always used, as for {@code GET /reels/by-user/:userId}.
+     *
+     * @param after the opaque cursor returned with the previous slice, absent or empty for the first slice.
+     * @param pageable the pagination information, only the page size is used.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of feed items in body,
+     * or with status {@code 400 (Bad Request)} if the cursor is not valid.
+     */
+    @GetMapping("/feed")
+    public ResponseEntity<List<ReelFeedItemDTO>> getFeed(
+        @RequestParam(value = "after", required = false) String after,
+        @org.springdoc.core.annotations.ParameterObject Pageable pageable
+    ) {
+        LOG.debug("REST request to get a slice of the feed after cursor : {}", after);
+        return sliceResponse(reelFeedService.getFeed(decodeCursor(after), pageable.getPageSize()), ReelFeedItemDTO::getReel);
+    }
+
+    private ReelCursor decodeCursor(String after) {
+        if (after == null || after.isBlank()) {
+            return null;
+        }
+        try {
+            return ReelCursor.decode(after);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestAlertException("Invalid cursor", ENTITY_NAME, "cursorinvalid");
+        }
+    }
+
+    private ResponseEntity<List<ReelDTO>> sliceResponse(Slice<ReelDTO> slice) {
+        return sliceResponse(slice, Function.identity());
+    }
+
+    private <T> ResponseEntity<List<T>> sliceResponse(Slice<T> slice, Function<T, ReelDTO> reelOf) {
+        HttpHeaders headers = new HttpHeaders();
+        if (slice.hasNext() && slice.hasContent()) {
+            List<T> content = slice.getContent();
+            String next = ReelCursor.of(reelOf.apply(content.get(content.size() - 1))).encode();
+            String nextLink = ServletUriComponentsBuilder.fromCurrentRequest()
+                .replaceQueryParam("page")
+                .replaceQueryParam("after", next)
+                .toUriString();
+            headers.add(HEADER_NEXT_CURSOR, next);
+            headers.add(HttpHeaders.LINK, "<" + nextLink + ">; rel=\"next\"");
+        }
+        return ResponseEntity.ok().headers(headers).body(slice.getContent());
+    }
+
     /**
      * {@code GET  /reels/:id} : get the "id" reel.
      *
@@ -169,6 +274,25 @@ public class ReelResource {
         return ResponseUtil.wrapOrNotFound(reelDTO);
     }
 
+    /**
+     * {@code POST  /reels/_batch} : get the reels with the given ids.
+     *
+     * @param ids the ids of the reels to retrieve, at most {@value #MAX_BATCH_SIZE}.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the reels found, in the order of the ids,
+     * or with status {@code 400 (Bad Request)} if there are too many ids.
+     */
+    @PostMapping("/_batch")
+    public ResponseEntity<List<ReelDTO>> getReels(@RequestBody List<UUID> ids) {
+        LOG.debug("REST request to get {} Reels", ids.size());
+        if (ids.size() > MAX_BATCH_SIZE) {
+            throw new BadRequestAlertException("At most " + MAX_BATCH_SIZE + " ids per batch", ENTITY_NAME, "batchtoolarge");
+        }
+        if (ids.contains(null)) {
+            throw new BadRequestAlertException("Invalid id", ENTITY_NAME, "idnull");
+        }
+        return ResponseEntity.ok(reelService.findAllById(ids));
+    }
+
     /**
      * {@code DELETE  /reels/:id} : delete the "id" reel.
      *
@@ -221,7 +345,7 @@ public class ReelResource {
     ) {
         LOG.debug("REST request to test getAllUsers from user service - page: {}, size: {}", page, size);
         try {
-            List<UserDTO> users = userResourceApi.getAllUsers();
+            List<UserDTO> users = userProfileService.getAllUsers();
             return ResponseEntity.ok().body(users);
         } catch (Exception e) {
             LOG.error("Error calling user service getAllUsers: {}", e.getMessage(), e);
@@ -0,0 +1,124 @@
+package com.f4.reel.web.rest;
+
+import com.f4.reel.config.ApplicationProperties;
+import com.f4.reel.service.MinioStorageService;
+import com.f4.reel.service.ReelVideoService;
+import java.io.IOException;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+/**
+ * REST controller for the playback of the videos of {@link com.f4.reel.domain.Reel}.
+ */
+@RestController
+@RequestMapping("/api/reels")
+public class ReelStreamResource {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ReelStreamResource.class);
+
+    private static final MediaType DEFAULT_VIDEO_TYPE = MediaType.parseMediaType("video/mp4");
+
+    private final ReelVideoService reelVideoService;
+
+    private final CacheControl cacheControl;
+
+    public ReelStreamResource(ReelVideoService reelVideoService, ApplicationProperties applicationProperties) {
+        this.reelVideoService = reelVideoService;
+        // the endpoint requires authentication: shared caches must not keep the video
+        this.cacheControl = CacheControl.maxAge(applicationProperties.getReelStream().getMaxAge()).cachePrivate();
+    }
+
+    /**
+     * {@code GET  /reels/:id/stream} : stream the video of the "id" reel, honoring a single {@code Range}.
+     *
+     * @param id the id of the reel.
+     * @param headers the request headers.
+     * @param request the request, for the conditional headers.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the whole video, with status
+     *         {@code 206 (Partial Content)} and the requested range, with status {@code 304 (Not Modified)}, with status
+     *         {@code 416 (Requested Range Not Satisfiable)}, or with status {@code 404 (Not Found)}.
+     * @throws IOException if the video cannot be read.
+     */
+    @GetMapping("/{id}/stream")
+    public ResponseEntity<StreamingResponseBody> streamReel(
+        @PathVariable("id") UUID id,
+        @RequestHeader HttpHeaders headers,
+        WebRequest request
+    ) throws IOException {
+        LOG.debug("REST request to stream Reel : {}", id);
+        Optional<MinioStorageService.ObjectStat> found = reelVideoService.findVideo(id);
+        if (found.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        MinioStorageService.ObjectStat video = found.orElseThrow();
+        String etag = video.etag() != null ? "\"" + video.etag() + "\"" : null;
+        long lastModified = video.lastModified() != null ? video.lastModified().toEpochMilli() : -1;
+        if (request.checkNotModified(etag, lastModified)) {
+            return null;
+        }
+
+        HttpHeaders responseHeaders = new HttpHeaders();
+        responseHeaders.set(HttpHeaders.ACCEPT_RANGES, "bytes");
+        responseHeaders.setCacheControl(cacheControl);
+        if (etag != null) {
+            responseHeaders.setETag(etag);
+        }
+        if (lastModified >= 0) {
+            responseHeaders.setLastModified(lastModified);
+        }
+        responseHeaders.setContentType(contentTypeOf(video));
+
+        long size = video.size();
+        long start = 0;
+        long length = size;
+        HttpStatus status = HttpStatus.OK;
+        List<HttpRange> ranges;
+        try {
+            ranges = rangeApplies(headers, etag) ? headers.getRange() : List.of();
+            // several ranges are legitimately answered with the whole video
+            if (ranges.size() == 1) {
+                start = ranges.get(0).getRangeStart(size);
+                length = ranges.get(0).getRangeEnd(size) - start + 1;
+                status = HttpStatus.PARTIAL_CONTENT;
+                responseHeaders.set(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + (start + length - 1) + "/" + size);
+            }
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE)
+                .header(HttpHeaders.CONTENT_RANGE, "bytes */" + size)
+                .build();
+        }
+        responseHeaders.setContentLength(length);
+
+        long offset = start;
+        long count = length;
+        return ResponseEntity.status(status).headers(responseHeaders).body(out -> reelVideoService.write(video, offset, count, out));
+    }
+
+    /**
+     * A range only applies if the client's copy, if any, is still current: see {@code If-Range}.
+     */
+    private static boolean rangeApplies(HttpHeaders headers, String etag) {
+        String ifRange = headers.getFirst(HttpHeaders.IF_RANGE);
+        return ifRange == null || ifRange.equals(etag);
+    }
+
+    private static MediaType contentTypeOf(MinioStorageService.ObjectStat video) {
+        try {
+            return video.contentType() != null ? MediaType.parseMediaType(video.contentType()) : DEFAULT_VIDEO_TYPE;
+        } catch (IllegalArgumentException e) {
+            return DEFAULT_VIDEO_TYPE;
+        }
+    }
+}
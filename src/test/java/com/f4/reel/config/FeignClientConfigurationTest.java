@@ -0,0 +1,145 @@
+package com.f4.reel.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.awaitility.Awaitility.await;
+
+import com.f4.reel.client.api.UserResourceApi;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import feign.Client;
+import feign.FeignException;
+import feign.Response;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerClient;
+
+class FeignClientConfigurationTest {
+
+    private static final String SERVICE = "msuser";
+
+    private final CountDownLatch transportReleased = new CountDownLatch(1);
+
+    private final AtomicInteger status = new AtomicInteger(200);
+
+    private final AtomicBoolean blocking = new AtomicBoolean();
+
+    private final AtomicInteger blockedCalls = new AtomicInteger();
+
+    private CircuitBreakerRegistry circuitBreakerRegistry;
+
+    private UserResourceApi userResourceApi;
+
+    @BeforeEach
+    void init() {
+        LoadBalancerClient loadBalancerClient = Mockito.mock(LoadBalancerClient.class);
+        DefaultServiceInstance instance = new DefaultServiceInstance("msuser-1", SERVICE, "localhost", 8081, false);
+        Mockito.when(loadBalancerClient.choose(SERVICE)).thenReturn(instance);
+        Mockito.when(loadBalancerClient.reconstructURI(Mockito.any(), Mockito.any())).thenAnswer(invocation ->
+            URI.create("http://localhost:8081" + invocation.<URI>getArgument(1).getPath())
+        );
+
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        ApplicationProperties.Feign.Service service = new ApplicationProperties.Feign.Service();
+        service.setMaxConcurrentCalls(1);
+        applicationProperties.getFeign().getServices().put(SERVICE, service);
+
+        // as configured in application.yml, with a small window
+        circuitBreakerRegistry = CircuitBreakerRegistry.of(
+            CircuitBreakerConfig.custom()
+                .slidingWindowSize(4)
+                .minimumNumberOfCalls(4)
+                .failureRateThreshold(50)
+                .ignoreExceptions(FeignException.FeignClientException.class)
+                .build()
+        );
+
+        Client transport = (request, options) -> {
+            if (blocking.getAndSet(false)) {
+                blockedCalls.incrementAndGet();
+                try {
+                    transportReleased.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return Response.builder()
+                .status(status.get())
+                .reason("reason")
+                .request(request)
+                .headers(Map.of("Content-Type", List.of("application/json")))
+                .body("[]", StandardCharsets.UTF_8)
+                .build();
+        };
+        FeignClientConfiguration configuration = new FeignClientConfiguration(
+            loadBalancerClient,
+            applicationProperties,
+            transport,
+            circuitBreakerRegistry,
+            new SimpleMeterRegistry()
+        );
+        ObjectMapper objectMapper = configuration.feignObjectMapper();
+        userResourceApi = configuration.userResourceApi(
+            requestTemplate -> {},
+            configuration.feignEncoder(objectMapper),
+            configuration.feignDecoder(objectMapper)
+        );
+    }
+
+    @AfterEach
+    void release() {
+        transportReleased.countDown();
+    }
+
+    @Test
+    void rejectsCallsOverTheBulkheadOfTheService() {
+        blocking.set(true);
+        CompletableFuture<?> running = CompletableFuture.runAsync(() -> userResourceApi.getAllUsers());
+        await().atMost(5, TimeUnit.SECONDS).until(() -> blockedCalls.get() == 1);
+
+        assertThatThrownBy(() -> userResourceApi.getAllUsers()).isInstanceOf(RejectedExecutionException.class);
+
+        transportReleased.countDown();
+        running.join();
+        assertThat(userResourceApi.getAllUsers()).isEmpty();
+    }
+
+    @Test
+    void rejectsCallsWhileTheCircuitBreakerIsOpen() {
+        circuitBreakerRegistry.circuitBreaker(SERVICE).transitionToOpenState();
+
+        assertThatThrownBy(() -> userResourceApi.getAllUsers()).isInstanceOf(CallNotPermittedException.class);
+    }
+
+    @Test
+    void clientErrorsDoNotOpenTheCircuitBreaker() {
+        status.set(404);
+        for (int i = 0; i < 8; i++) {
+            assertThatThrownBy(() -> userResourceApi.getAllUsers()).isInstanceOf(FeignException.NotFound.class);
+        }
+        assertThat(circuitBreakerRegistry.circuitBreaker(SERVICE).getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+
+        status.set(503);
+        for (int i = 0; i < 4; i++) {
+            assertThatThrownBy(() -> userResourceApi.getAllUsers()).isInstanceOf(FeignException.ServiceUnavailable.class);
+        }
+        assertThat(circuitBreakerRegistry.circuitBreaker(SERVICE).getState()).isEqualTo(CircuitBreaker.State.OPEN);
+    }
+}
@@ -0,0 +1,57 @@
+package com.f4.reel.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import feign.Logger;
+import feign.Request;
+import feign.Response;
+import feign.Util;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+class SampledFeignLoggerTest {
+
+    private static final String CONFIG_KEY = "UserResourceApi#getAllUsers()";
+
+    private final Request request = Request.create(
+        Request.HttpMethod.GET,
+        "http://msuser/api/users",
+        Map.of(),
+        null,
+        StandardCharsets.UTF_8,
+        null
+    );
+
+    @Test
+    void leavesCallsNeitherSampledNorFailedUntouched() throws Exception {
+        SampledFeignLogger logger = new SampledFeignLogger(SampledFeignLoggerTest.class, 0, true);
+        Response response = response(200, "[]");
+
+        logger.logRequest(CONFIG_KEY, Logger.Level.FULL, request);
+
+        assertThat(logger.logAndRebufferResponse(CONFIG_KEY, Logger.Level.FULL, response, 12)).isSameAs(response);
+    }
+
+    @Test
+    void keepsTheBodyOfFailedCallsReadable() throws Exception {
+        SampledFeignLogger logger = new SampledFeignLogger(SampledFeignLoggerTest.class, 0, true);
+
+        logger.logRequest(CONFIG_KEY, Logger.Level.FULL, request);
+        Response logged = logger.logAndRebufferResponse(CONFIG_KEY, Logger.Level.FULL, response(503, "unavailable"), 12);
+
+        assertThat(Util.toString(logged.body().asReader(StandardCharsets.UTF_8))).isEqualTo("unavailable");
+    }
+
+    @Test
+    void neverLogsTheAuthorizationHeader() {
+        SampledFeignLogger logger = new SampledFeignLogger(SampledFeignLoggerTest.class, 1, true);
+
+        assertThat(logger.shouldLogRequestHeader("Authorization")).isFalse();
+        assertThat(logger.shouldLogRequestHeader("Accept")).isTrue();
+    }
+
+    private Response response(int status, String body) {
+        return Response.builder().status(status).reason("reason").request(request).body(body, StandardCharsets.UTF_8).build();
+    }
+}
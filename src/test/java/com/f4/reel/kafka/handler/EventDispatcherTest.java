@@ -0,0 +1,73 @@
+package com.f4.reel.kafka.handler;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.f4.reel.kafka.handler.events.PostReelHandler;
+import com.f4.reel.service.ReelService;
+import com.f4.reel.service.dto.ReelDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+class EventDispatcherTest {
+
+    private final List<ReelDTO> saved = new ArrayList<>();
+
+    private EventDispatcher dispatcher;
+
+    @BeforeEach
+    void init() {
+        ReelService reelService = Mockito.mock(ReelService.class);
+        Mockito.when(reelService.save(Mockito.any())).thenAnswer(invocation -> {
+            saved.add(invocation.getArgument(0));
+            return invocation.getArgument(0);
+        });
+        dispatcher = new EventDispatcher(List.of(new PostReelHandler(reelService)));
+    }
+
+    @Test
+    void dispatchesAvroPayloadWithoutJson() throws Exception {
+        UUID userId = UUID.randomUUID();
+        com.f4.reel.avro.ReelDTO avroReelDTO = com.f4.reel.avro.ReelDTO.newBuilder()
+            .setUserId(userId.toString())
+            .setTitle("title")
+            .setVideoUrl("http://video")
+            .setCreatedAt("2025-04-22T05:24:15Z")
+            .build();
+
+        Object handled = dispatcher.dispatch("postReel", avroReelDTO);
+
+        assertThat(handled).isInstanceOf(ReelDTO.class);
+        assertThat(saved).singleElement().isSameAs(handled);
+        assertThat(saved.get(0).getUserId()).isEqualTo(userId);
+        assertThat(saved.get(0).getCreatedAt()).isEqualTo(Instant.parse("2025-04-22T05:24:15Z"));
+    }
+
+    @Test
+    void dispatchesTypedPayloadAsIs() throws Exception {
+        ReelDTO reelDTO = new ReelDTO();
+
+        assertThat(dispatcher.dispatch("postReel", reelDTO)).isSameAs(reelDTO);
+        assertThat(saved).singleElement().isSameAs(reelDTO);
+    }
+
+    @Test
+    void dispatchesJsonPayload() throws Exception {
+        ObjectMapper mapper = new ObjectMapper();
+
+        dispatcher.dispatch(new EventEnvelope<>("postReel", mapper.readTree("{\"title\":\"title\"}")));
+
+        assertThat(saved).singleElement().extracting(ReelDTO::getTitle).isEqualTo("title");
+    }
+
+    @Test
+    void rejectsUnknownEvent() {
+        assertThatThrownBy(() -> dispatcher.dispatch("unknown", new ReelDTO())).isInstanceOf(IllegalArgumentException.class);
+    }
+}
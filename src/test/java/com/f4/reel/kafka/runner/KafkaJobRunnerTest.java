@@ -0,0 +1,96 @@
+package com.f4.reel.kafka.runner;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.stream.binding.BindingsLifecycleController;
+import org.springframework.cloud.stream.function.StreamBridge;
+
+class KafkaJobRunnerTest {
+
+    private KafkaJobRunner kafkaJobRunner;
+
+    @AfterEach
+    void shutdown() {
+        if (kafkaJobRunner != null) {
+            kafkaJobRunner.shutdown();
+        }
+    }
+
+    @Test
+    void capsTheJobsRunningOnThePlatformPool() throws InterruptedException {
+        kafkaJobRunner = newRunner("platform", 8, 2);
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        CountDownLatch done = new CountDownLatch(20);
+
+        for (int i = 0; i < 20; i++) {
+            kafkaJobRunner.submitJob("job-" + i, "event", null, () -> {
+                maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                sleep(10);
+                running.decrementAndGet();
+                done.countDown();
+            });
+        }
+
+        assertThat(done.await(10, TimeUnit.SECONDS)).isTrue();
+        assertThat(maxRunning.get()).isEqualTo(2);
+        assertThat(kafkaJobRunner.getMode()).isEqualTo(KafkaJobRunner.Mode.PLATFORM);
+    }
+
+    @Test
+    void runsMoreLanesThanPermitsWithoutDeadlock() throws InterruptedException {
+        kafkaJobRunner = newRunner("platform", 4, 1);
+        CountDownLatch done = new CountDownLatch(64);
+
+        for (int i = 0; i < 64; i++) {
+            kafkaJobRunner.submitOrderedJob("key-" + (i % 8), "job-" + i, "event", () -> {
+                sleep(1);
+                done.countDown();
+            });
+        }
+
+        assertThat(done.await(10, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    void fallsBackToThePlatformPoolBeforeJava21() {
+        kafkaJobRunner = newRunner("virtual", 2, 2);
+
+        KafkaJobRunner.Mode expected = Runtime.version().feature() >= 21 ? KafkaJobRunner.Mode.VIRTUAL : KafkaJobRunner.Mode.PLATFORM;
+        assertThat(kafkaJobRunner.getMode()).isEqualTo(expected);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static KafkaJobRunner newRunner(String mode, int threadPoolSize, int maxConcurrency) {
+        return new KafkaJobRunner(
+            Mockito.mock(StreamBridge.class),
+            Mockito.mock(ObjectProvider.class),
+            new SimpleMeterRegistry(),
+            threadPoolSize,
+            "kafka-job-test-",
+            1000,
+            250,
+            "kafkaConsumer-in-0",
+            "job-completion",
+            16,
+            mode,
+            maxConcurrency
+        );
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package com.f4.reel.kafka.runner;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class KeyedLaneExecutorTest {
+
+    private final ExecutorService pool = Executors.newFixedThreadPool(8);
+
+    @AfterEach
+    void shutdown() {
+        pool.shutdownNow();
+    }
+
+    @Test
+    void keepsOrderPerKey() throws InterruptedException {
+        KeyedLaneExecutor lanes = new KeyedLaneExecutor(4, pool);
+        Map<String, List<Integer>> seen = new ConcurrentHashMap<>();
+        CountDownLatch done = new CountDownLatch(300);
+
+        for (int i = 0; i < 100; i++) {
+            int sequence = i;
+            for (String key : List.of("a", "b", "c")) {
+                lanes.execute(key, () -> {
+                    seen.computeIfAbsent(key, k -> new CopyOnWriteArrayList<>()).add(sequence);
+                    done.countDown();
+                });
+            }
+        }
+
+        assertThat(done.await(10, TimeUnit.SECONDS)).isTrue();
+        for (String key : List.of("a", "b", "c")) {
+            assertThat(seen.get(key)).isSorted().hasSize(100);
+        }
+    }
+
+    @Test
+    void runsDifferentLanesInParallel() throws InterruptedException {
+        KeyedLaneExecutor lanes = new KeyedLaneExecutor(2, pool);
+        String first = "a";
+        String second = "b";
+        assertThat(lanes.laneOf(first)).isNotEqualTo(lanes.laneOf(second));
+        CountDownLatch bothStarted = new CountDownLatch(2);
+        CountDownLatch done = new CountDownLatch(2);
+
+        for (String key : List.of(first, second)) {
+            lanes.execute(key, () -> {
+                bothStarted.countDown();
+                try {
+                    if (bothStarted.await(5, TimeUnit.SECONDS)) {
+                        done.countDown();
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+        }
+
+        assertThat(done.await(10, TimeUnit.SECONDS)).isTrue();
+        await().atMost(5, TimeUnit.SECONDS).until(() -> lanes.getBacklog() == 0);
+    }
+
+    @Test
+    void keepsTheTasksOfALaneWhoseNextTaskIsRejected() throws InterruptedException {
+        AtomicBoolean reject = new AtomicBoolean();
+        ThreadPoolExecutor worker = (ThreadPoolExecutor) Executors.newFixedThreadPool(1);
+        CountDownLatch firstStarted = new CountDownLatch(1);
+        CountDownLatch releaseFirst = new CountDownLatch(1);
+        KeyedLaneExecutor lanes = new KeyedLaneExecutor(1, task -> {
+            if (reject.get()) {
+                throw new RejectedExecutionException("rejected");
+            }
+            worker.execute(task);
+        });
+        List<Integer> seen = new CopyOnWriteArrayList<>();
+
+        lanes.execute("a", () -> {
+            firstStarted.countDown();
+            try {
+                releaseFirst.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            seen.add(0);
+        });
+        assertThat(firstStarted.await(5, TimeUnit.SECONDS)).isTrue();
+        lanes.execute("a", () -> seen.add(1));
+        lanes.execute("a", () -> seen.add(2));
+        // the end of the first task cannot hand over the second one
+        reject.set(true);
+        releaseFirst.countDown();
+        // the worker is done with the first task once it has failed to hand over the second one
+        await().atMost(5, TimeUnit.SECONDS).until(() -> worker.getCompletedTaskCount() == 1);
+        assertThat(seen).containsExactly(0);
+        assertThat(lanes.getBacklog()).isEqualTo(2);
+
+        reject.set(false);
+        lanes.execute("a", () -> seen.add(3));
+
+        await().atMost(5, TimeUnit.SECONDS).until(() -> seen.size() == 4);
+        assertThat(seen).containsExactly(0, 1, 2, 3);
+        await().atMost(5, TimeUnit.SECONDS).until(() -> lanes.getBacklog() == 0);
+        worker.shutdownNow();
+    }
+
+    @Test
+    void runsTheTasksHandedBackByTheDelegateWithoutGrowingTheStack() throws InterruptedException {
+        // a delegate whose queue is always full, running every task in the caller
+        KeyedLaneExecutor lanes = new KeyedLaneExecutor(1, Runnable::run);
+        int taskCount = 100_000;
+        CountDownLatch firstStarted = new CountDownLatch(1);
+        CountDownLatch releaseFirst = new CountDownLatch(1);
+        AtomicInteger ran = new AtomicInteger();
+
+        pool.execute(() ->
+            lanes.execute("a", () -> {
+                firstStarted.countDown();
+                try {
+                    releaseFirst.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                ran.incrementAndGet();
+            })
+        );
+        assertThat(firstStarted.await(5, TimeUnit.SECONDS)).isTrue();
+        for (int i = 1; i < taskCount; i++) {
+            lanes.execute("a", ran::incrementAndGet);
+        }
+        releaseFirst.countDown();
+
+        await().atMost(10, TimeUnit.SECONDS).until(() -> lanes.getBacklog() == 0);
+        assertThat(ran.get()).isEqualTo(taskCount);
+    }
+}
@@ -0,0 +1,223 @@
+package com.f4.reel.kafka.sse;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+import com.f4.reel.config.ApplicationProperties;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.IOException;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+class SseBroadcasterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private SseBroadcaster sseBroadcaster;
+
+    @AfterEach
+    void shutdown() {
+        if (sseBroadcaster != null) {
+            sseBroadcaster.shutdown();
+        }
+    }
+
+    @Test
+    void dropsTheOldestFramesOfASlowSubscriber() throws Exception {
+        sseBroadcaster = newBroadcaster(ApplicationProperties.Sse.OverflowPolicy.DROP_OLDEST);
+        Connection slow = connect("slow");
+        slow.blocking = true;
+
+        sseBroadcaster.broadcast("e0", Map.of());
+        assertThat(slow.sendEntered.await(5, TimeUnit.SECONDS)).isTrue();
+        for (int i = 1; i <= 4; i++) {
+            sseBroadcaster.broadcast("e" + i, Map.of());
+        }
+        await().atMost(5, TimeUnit.SECONDS).until(() -> droppedFrames() == 2);
+        slow.released.countDown();
+
+        await().atMost(5, TimeUnit.SECONDS).until(() -> slow.events.size() == 3);
+        assertThat(slow.events).containsExactly("e0", "e3", "e4");
+        assertThat(sseBroadcaster.getSubscriberCount()).isEqualTo(1);
+        assertThat(slow.completed).isFalse();
+    }
+
+    @Test
+    void disconnectsASlowSubscriber() throws Exception {
+        sseBroadcaster = newBroadcaster(ApplicationProperties.Sse.OverflowPolicy.DISCONNECT);
+        Connection slow = connect("slow");
+        Connection fast = connect("fast");
+        slow.blocking = true;
+
+        // the fast subscriber is waited for, so only the slow one ever overflows
+        for (int i = 0; i <= 3; i++) {
+            sseBroadcaster.broadcast("e" + i, Map.of());
+            int received = i + 1;
+            await().atMost(5, TimeUnit.SECONDS).until(() -> fast.events.size() == received);
+        }
+
+        await().atMost(5, TimeUnit.SECONDS).until(() -> slow.completed);
+        assertThat(meterRegistry.get("sse.subscribers.disconnected").counter().count()).isEqualTo(1);
+        assertThat(sseBroadcaster.getSubscriberCount()).isEqualTo(1);
+        assertThat(fast.completed).isFalse();
+        slow.released.countDown();
+    }
+
+    @Test
+    void disconnectsASubscriberWhoseWriteIsStuck() throws Exception {
+        sseBroadcaster = newBroadcaster(ApplicationProperties.Sse.OverflowPolicy.DROP_OLDEST, 1, Duration.ofMillis(200));
+        Connection stuck = connect("stuck");
+        Connection other = connect("other");
+        stuck.blocking = true;
+
+        // no more frames than the buffer holds, the other subscriber may wait behind the stuck one
+        sseBroadcaster.broadcast("e0", Map.of());
+        sseBroadcaster.broadcast("e1", Map.of());
+
+        // the single writer is freed by the interrupt and serves the other subscriber
+        await().atMost(5, TimeUnit.SECONDS).until(() -> other.events.size() == 2);
+        assertThat(other.events).containsExactly("e0", "e1");
+        await().atMost(5, TimeUnit.SECONDS).until(() -> stuck.completed);
+        assertThat(meterRegistry.get("sse.subscribers.disconnected").counter().count()).isEqualTo(1);
+        assertThat(sseBroadcaster.getSubscriberCount()).isEqualTo(1);
+    }
+
+    @Test
+    void removesASubscriberWhoseWriteFails() throws Exception {
+        sseBroadcaster = newBroadcaster(ApplicationProperties.Sse.OverflowPolicy.DROP_OLDEST);
+        Connection broken = connect("broken");
+        broken.failing = true;
+
+        sseBroadcaster.broadcast("e0", Map.of());
+
+        await().atMost(5, TimeUnit.SECONDS).until(() -> sseBroadcaster.getSubscriberCount() == 0);
+        assertThat(broken.completed).isTrue();
+    }
+
+    @Test
+    void removesASubscriberOnTimeoutOrError() throws Exception {
+        sseBroadcaster = newBroadcaster(ApplicationProperties.Sse.OverflowPolicy.DROP_OLDEST);
+        Connection timedOut = connect("timed-out");
+        Connection failed = connect("failed");
+        assertThat(sseBroadcaster.getSubscriberCount()).isEqualTo(2);
+
+        timedOut.timeoutCallbacks.forEach(Runnable::run);
+        assertThat(sseBroadcaster.getSubscriberCount()).isEqualTo(1);
+
+        failed.errorCallbacks.forEach(callback -> callback.accept(new IOException("connection reset")));
+        assertThat(sseBroadcaster.getSubscriberCount()).isZero();
+    }
+
+    private SseBroadcaster newBroadcaster(ApplicationProperties.Sse.OverflowPolicy overflowPolicy) {
+        return newBroadcaster(overflowPolicy, 2, Duration.ofHours(1));
+    }
+
+    private SseBroadcaster newBroadcaster(
+        ApplicationProperties.Sse.OverflowPolicy overflowPolicy,
+        int writerThreads,
+        Duration writeTimeout
+    ) {
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        ApplicationProperties.Sse properties = applicationProperties.getSse();
+        properties.setShards(1);
+        properties.setWriterThreads(writerThreads);
+        properties.setWriteTimeout(writeTimeout);
+        properties.setBufferSize(2);
+        properties.setOverflowPolicy(overflowPolicy);
+        properties.setHeartbeatInterval(Duration.ofHours(1));
+        return new SseBroadcaster(new ObjectMapper(), applicationProperties, meterRegistry);
+    }
+
+    private double droppedFrames() {
+        return meterRegistry.get("sse.frames.dropped").counter().count();
+    }
+
+    /**
+     * Subscribe and connect the emitter to a fake connection, as the servlet container would.
+     */
+    private Connection connect(String key) throws Exception {
+        SseEmitter emitter = sseBroadcaster.subscribe(key);
+        Class<?> handlerType = Class.forName(ResponseBodyEmitter.class.getName() + "$Handler");
+        Connection connection = new Connection();
+        Object handler = Proxy.newProxyInstance(handlerType.getClassLoader(), new Class<?>[] { handlerType }, connection);
+        Method initialize = ResponseBodyEmitter.class.getDeclaredMethod("initialize", handlerType);
+        initialize.setAccessible(true);
+        initialize.invoke(emitter, handler);
+        return connection;
+    }
+
+    /**
+     * A client connection, recording the names of the events it receives.
+     */
+    private static final class Connection implements InvocationHandler {
+
+        private final List<String> events = new CopyOnWriteArrayList<>();
+        private final List<Runnable> timeoutCallbacks = new CopyOnWriteArrayList<>();
+        private final List<Consumer<Throwable>> errorCallbacks = new CopyOnWriteArrayList<>();
+        private final List<Runnable> completionCallbacks = new CopyOnWriteArrayList<>();
+        private final CountDownLatch sendEntered = new CountDownLatch(1);
+        private final CountDownLatch released = new CountDownLatch(1);
+        private volatile boolean blocking;
+        private volatile boolean failing;
+        private volatile boolean completed;
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "send" -> send((Set<DataWithMediaType>) args[0]);
+                case "complete", "completeWithError" -> {
+                    completed = true;
+                    completionCallbacks.forEach(Runnable::run);
+                }
+                case "onTimeout" -> timeoutCallbacks.add((Runnable) args[0]);
+                case "onError" -> errorCallbacks.add((Consumer<Throwable>) args[0]);
+                case "onCompletion" -> completionCallbacks.add((Runnable) args[0]);
+                case "hashCode" -> {
+                    return System.identityHashCode(proxy);
+                }
+                case "equals" -> {
+                    return proxy == args[0];
+                }
+                case "toString" -> {
+                    return "Connection";
+                }
+                default -> throw new UnsupportedOperationException(method.getName());
+            }
+            return null;
+        }
+
+        private void send(Set<DataWithMediaType> frame) throws IOException, InterruptedException {
+            if (failing) {
+                throw new IOException("broken pipe");
+            }
+            sendEntered.countDown();
+            if (blocking) {
+                released.await();
+            }
+            frame
+                .stream()
+                .map(DataWithMediaType::getData)
+                .filter(String.class::isInstance)
+                .map(String.class::cast)
+                .filter(data -> data.startsWith("event:"))
+                .findFirst()
+                .ifPresent(data -> events.add(data.substring("event:".length(), data.indexOf('\n')).trim()));
+        }
+    }
+}
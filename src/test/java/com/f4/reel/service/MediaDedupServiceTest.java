@@ -0,0 +1,77 @@
+package com.f4.reel.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.f4.reel.config.ApplicationProperties;
+import com.f4.reel.domain.StoredMedia;
+import com.f4.reel.repository.StoredMediaRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+class MediaDedupServiceTest {
+
+    private static final String SHA256_OF_CONTENT = "ed7002b439e9ac845f22357d822bac1444730fbdb6016d3ec9432297b9ec9f73";
+
+    private final Map<String, StoredMedia> index = new ConcurrentHashMap<>();
+
+    private MinioStorageService minioStorageService;
+
+    private MediaDedupService mediaDedupService;
+
+    @BeforeEach
+    void init() throws Exception {
+        minioStorageService = Mockito.mock(MinioStorageService.class);
+        Mockito.when(minioStorageService.store(Mockito.anyString(), Mockito.any(), Mockito.anyLong(), Mockito.anyString())).thenAnswer(
+            invocation -> {
+                byte[] content = invocation.<InputStream>getArgument(1).readAllBytes();
+                String objectName = invocation.getArgument(0);
+                return new MinioStorageService.StoredObject(objectName, "http://minio/" + objectName, content.length, SHA256_OF_CONTENT);
+            }
+        );
+        Mockito.when(minioStorageService.urlOf(Mockito.anyString())).thenAnswer(invocation -> "http://minio/" + invocation.getArgument(0));
+
+        StoredMediaRepository repository = Mockito.mock(StoredMediaRepository.class);
+        Mockito.when(repository.findOneByDedupKey(Mockito.anyString())).thenAnswer(invocation ->
+            Optional.ofNullable(index.get(invocation.<String>getArgument(0)))
+        );
+        Mockito.when(repository.saveAndFlush(Mockito.any())).thenAnswer(invocation -> {
+            StoredMedia media = invocation.getArgument(0);
+            index.putIfAbsent(media.getDedupKey(), media);
+            return media;
+        });
+
+        mediaDedupService = new MediaDedupService(minioStorageService, repository, new ApplicationProperties(), new SimpleMeterRegistry());
+    }
+
+    @Test
+    void returnsExistingObjectForSameContent() throws Exception {
+        String first = mediaDedupService.store(null, "a.mp4", stream(), -1, "video/mp4");
+        String second = mediaDedupService.store(null, "b.mp4", stream(), -1, "video/mp4");
+
+        assertThat(first).isEqualTo("http://minio/a.mp4");
+        assertThat(second).isEqualTo(first);
+        Mockito.verify(minioStorageService).remove("b.mp4");
+        assertThat(index).containsKey(MediaDedupService.CONTENT_PREFIX + SHA256_OF_CONTENT);
+    }
+
+    @Test
+    void findsStoredSource() throws Exception {
+        assertThat(mediaDedupService.findBySource("http://pexels/video.mp4")).isEmpty();
+
+        mediaDedupService.store("http://pexels/video.mp4", "a.mp4", stream(), -1, "video/mp4");
+
+        assertThat(mediaDedupService.findBySource("http://pexels/video.mp4")).contains("http://minio/a.mp4");
+        assertThat(mediaDedupService.findBySource("http://pexels/other.mp4")).isEmpty();
+    }
+
+    private static InputStream stream() {
+        return new ByteArrayInputStream("content".getBytes());
+    }
+}
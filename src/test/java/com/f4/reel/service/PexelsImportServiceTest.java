@@ -0,0 +1,102 @@
+package com.f4.reel.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.awaitility.Awaitility.await;
+
+import com.f4.reel.config.ApplicationProperties;
+import com.f4.reel.service.dto.PexelsImportJobDTO;
+import com.f4.reel.service.dto.PexelsImportRequest;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+class PexelsImportServiceTest {
+
+    private static final String SLOW_HOST_URL = "https://videos.pexels.com/video-files/1/slow.mp4";
+
+    private final CountDownLatch slowHostReleased = new CountDownLatch(1);
+
+    private PexelsService pexelsService;
+
+    private PexelsImportService pexelsImportService;
+
+    @BeforeEach
+    void init() {
+        pexelsService = Mockito.mock(PexelsService.class);
+        ReelService reelService = Mockito.mock(ReelService.class);
+        Mockito.when(reelService.saveAll(Mockito.anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        ApplicationProperties.PexelsImport properties = applicationProperties.getPexelsImport();
+        properties.setWorkers(2);
+        properties.setMaxPerHost(1);
+        properties.setQueueCapacity(4);
+        pexelsImportService = new PexelsImportService(pexelsService, reelService, applicationProperties, "https://minio.example.com");
+    }
+
+    @AfterEach
+    void shutdown() {
+        slowHostReleased.countDown();
+        pexelsImportService.shutdown();
+    }
+
+    @Test
+    void aSlowHostDoesNotHoldTheWorkersOfOtherHosts() throws Exception {
+        Mockito.when(pexelsService.storePexelsVideo(Mockito.anyString())).thenAnswer(invocation -> {
+            String url = invocation.getArgument(0);
+            if (url.startsWith("https://videos.pexels.com")) {
+                slowHostReleased.await();
+            }
+            return url;
+        });
+
+        PexelsImportJobDTO slow = pexelsImportService.start(request(SLOW_HOST_URL, "https://videos.pexels.com/video-files/2/slow.mp4"));
+        PexelsImportJobDTO fast = pexelsImportService.start(request("https://minio.example.com/reels/fast.mp4"));
+
+        await().atMost(5, TimeUnit.SECONDS).until(() -> status(fast.getId()) == PexelsImportJobDTO.Status.COMPLETED);
+        assertThat(status(slow.getId())).isEqualTo(PexelsImportJobDTO.Status.RUNNING);
+
+        slowHostReleased.countDown();
+        await().atMost(5, TimeUnit.SECONDS).until(() -> status(slow.getId()) == PexelsImportJobDTO.Status.COMPLETED);
+        assertThat(pexelsImportService.findJob(slow.getId()).orElseThrow().getCreated()).isEqualTo(2);
+    }
+
+    @Test
+    void refusesAJobOverTheQueueCapacity() throws Exception {
+        Mockito.when(pexelsService.storePexelsVideo(Mockito.anyString())).thenAnswer(invocation -> {
+            slowHostReleased.await();
+            return invocation.getArgument(0);
+        });
+        pexelsImportService.start(request(SLOW_HOST_URL, SLOW_HOST_URL, SLOW_HOST_URL));
+
+        assertThatThrownBy(() -> pexelsImportService.start(request(SLOW_HOST_URL, SLOW_HOST_URL))).isInstanceOf(
+            RejectedExecutionException.class
+        );
+    }
+
+    @Test
+    void refusesHostsNotAllowed() {
+        assertThatThrownBy(() -> pexelsImportService.start(request("https://example.com/video.mp4"))).isInstanceOf(
+            IllegalArgumentException.class
+        );
+        Mockito.verifyNoInteractions(pexelsService);
+    }
+
+    private PexelsImportJobDTO.Status status(UUID jobId) {
+        return pexelsImportService.findJob(jobId).orElseThrow().getStatus();
+    }
+
+    private PexelsImportRequest request(String... urls) {
+        PexelsImportRequest request = new PexelsImportRequest();
+        request.setUserId(UUID.randomUUID());
+        request.setUrls(List.of(urls));
+        return request;
+    }
+}
@@ -0,0 +1,99 @@
+package com.f4.reel.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.f4.reel.client.api.CommentResourceApi;
+import com.f4.reel.client.api.LikeResourceApi;
+import com.f4.reel.config.ApplicationProperties;
+import com.f4.reel.service.dto.ReelDTO;
+import com.f4.reel.service.dto.ReelFeedItemDTO;
+import com.f4.reel.service.dto.UserProfileDTO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
+
+class ReelFeedServiceTest {
+
+    private final UUID userId = UUID.randomUUID();
+
+    private final List<ReelDTO> reels = List.of(reel(), reel());
+
+    private LikeResourceApi likeResourceApi;
+
+    private CommentResourceApi commentResourceApi;
+
+    private ReelFeedService reelFeedService;
+
+    @BeforeEach
+    void init() {
+        ReelService reelService = Mockito.mock(ReelService.class);
+        Mockito.when(reelService.findAllAfter(null, 2)).thenReturn(new SliceImpl<>(reels, PageRequest.of(0, 2), true));
+
+        UserProfileService userProfileService = Mockito.mock(UserProfileService.class);
+        Mockito.when(userProfileService.getProfiles(Mockito.any())).thenReturn(
+            Map.of(userId, new UserProfileDTO(userId, "creator", "http://avatar"))
+        );
+
+        likeResourceApi = Mockito.mock(LikeResourceApi.class);
+        Mockito.when(likeResourceApi.countLikesParentIdsAndParentType(Mockito.anyList(), Mockito.eq("REEL"))).thenAnswer(invocation ->
+            invocation.<List<UUID>>getArgument(0).stream().map(id -> id.equals(reels.get(0).getId()) ? 3 : 5).toList()
+        );
+        commentResourceApi = Mockito.mock(CommentResourceApi.class);
+        Mockito.when(commentResourceApi.countCommentsParentIdsAndParentType(Mockito.anyList(), Mockito.eq("REEL"))).thenAnswer(invocation ->
+            invocation.<List<UUID>>getArgument(0).stream().map(id -> 1).toList()
+        );
+
+        reelFeedService = new ReelFeedService(
+            reelService,
+            userProfileService,
+            likeResourceApi,
+            commentResourceApi,
+            new ApplicationProperties(),
+            new SimpleMeterRegistry()
+        );
+    }
+
+    @AfterEach
+    void shutdown() {
+        reelFeedService.shutdown();
+    }
+
+    @Test
+    void enrichesPageWithOneBatchedCallPerService() {
+        List<ReelFeedItemDTO> feed = reelFeedService.getFeed(null, 2).getContent();
+
+        assertThat(feed).extracting(ReelFeedItemDTO::getReel).containsExactlyElementsOf(reels);
+        assertThat(feed).extracting(ReelFeedItemDTO::getLikeCount).containsExactly(3L, 5L);
+        assertThat(feed).extracting(ReelFeedItemDTO::getCommentCount).containsExactly(1L, 1L);
+        assertThat(feed).extracting(item -> item.getUser().username()).containsOnly("creator");
+        Mockito.verify(likeResourceApi, Mockito.times(1)).countLikesParentIdsAndParentType(Mockito.anyList(), Mockito.anyString());
+        Mockito.verify(commentResourceApi, Mockito.times(1)).countCommentsParentIdsAndParentType(Mockito.anyList(), Mockito.anyString());
+    }
+
+    @Test
+    void servesCountsFromCache() {
+        reelFeedService.getFeed(null, 2);
+        reelFeedService.getFeed(null, 2);
+
+        Mockito.verify(likeResourceApi, Mockito.times(1)).countLikesParentIdsAndParentType(Mockito.anyList(), Mockito.anyString());
+        Mockito.verify(commentResourceApi, Mockito.times(1)).countCommentsParentIdsAndParentType(Mockito.anyList(), Mockito.anyString());
+    }
+
+    private ReelDTO reel() {
+        ReelDTO reel = new ReelDTO();
+        reel.setId(UUID.randomUUID());
+        reel.setUserId(userId);
+        reel.setTitle("title");
+        reel.setVideoUrl("http://video");
+        reel.setCreatedAt(Instant.now());
+        return reel;
+    }
+}
@@ -0,0 +1,81 @@
+package com.f4.reel.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.f4.reel.config.ApplicationProperties;
+import com.f4.reel.service.dto.ReelDTO;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.topic.ITopic;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+class ReelNearCacheTest {
+
+    private final UUID id = UUID.randomUUID();
+
+    private final AtomicInteger loads = new AtomicInteger();
+
+    private ReelNearCache reelNearCache;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void init() {
+        HazelcastInstance hazelcastInstance = Mockito.mock(HazelcastInstance.class);
+        Mockito.when(hazelcastInstance.<UUID>getTopic(ReelNearCache.INVALIDATION_TOPIC)).thenReturn(Mockito.mock(ITopic.class));
+        reelNearCache = new ReelNearCache(new ApplicationProperties(), hazelcastInstance, new SimpleMeterRegistry());
+    }
+
+    @AfterEach
+    void cleanup() {
+        TransactionSynchronizationManager.setActualTransactionActive(false);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+    }
+
+    @Test
+    void cachesReadsOutsideOfTransactions() {
+        reelNearCache.get(id, this::load);
+        reelNearCache.get(id, this::load);
+
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    void cachesReadsInReadOnlyTransactions() {
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        reelNearCache.get(id, this::load);
+        reelNearCache.get(id, this::load);
+
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    void neverCachesReadsInWriteTransactions() {
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        reelNearCache.get(id, this::load);
+        Map<UUID, ReelDTO> reels = reelNearCache.getAll(List.of(id), ids -> Map.of(id, load().orElseThrow()));
+        TransactionSynchronizationManager.setActualTransactionActive(false);
+        reelNearCache.get(id, this::load);
+
+        assertThat(reels).containsKey(id);
+        assertThat(loads).hasValue(3);
+    }
+
+    private Optional<ReelDTO> load() {
+        loads.incrementAndGet();
+        ReelDTO reel = new ReelDTO();
+        reel.setId(id);
+        reel.setTitle("title");
+        return Optional.of(reel);
+    }
+}
@@ -0,0 +1,169 @@
+package com.f4.reel.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.f4.reel.config.ApplicationProperties;
+import com.f4.reel.domain.Reel;
+import com.f4.reel.domain.ReelOutboxDeadLetter;
+import com.f4.reel.domain.ReelOutboxEvent;
+import com.f4.reel.domain.enumeration.ReelOutboxEventType;
+import com.f4.reel.repository.ReelOutboxDeadLetterRepository;
+import com.f4.reel.repository.ReelOutboxRepository;
+import com.f4.reel.repository.search.ReelSearchRepository;
+import com.f4.reel.service.dto.ReelDTO;
+import com.f4.reel.service.mapper.ReelMapper;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.springframework.cloud.stream.function.StreamBridge;
+import org.springframework.data.domain.Pageable;
+import org.springframework.messaging.Message;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+class ReelOutboxServiceTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+    private ReelOutboxRepository reelOutboxRepository;
+
+    private ReelOutboxDeadLetterRepository reelOutboxDeadLetterRepository;
+
+    private ReelSearchRepository reelSearchRepository;
+
+    private StreamBridge streamBridge;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private ReelOutboxService reelOutboxService;
+
+    @BeforeEach
+    void init() {
+        reelOutboxRepository = Mockito.mock(ReelOutboxRepository.class);
+        reelOutboxDeadLetterRepository = Mockito.mock(ReelOutboxDeadLetterRepository.class);
+        reelSearchRepository = Mockito.mock(ReelSearchRepository.class);
+        streamBridge = Mockito.mock(StreamBridge.class);
+        Mockito.when(streamBridge.send(Mockito.anyString(), Mockito.any(Message.class))).thenReturn(true);
+        ReelMapper reelMapper = Mockito.mock(ReelMapper.class);
+        Mockito.when(reelMapper.toEntity(Mockito.any(ReelDTO.class))).thenAnswer(invocation ->
+            new Reel().id(invocation.<ReelDTO>getArgument(0).getId())
+        );
+        PlatformTransactionManager transactionManager = Mockito.mock(PlatformTransactionManager.class);
+        Mockito.when(transactionManager.getTransaction(Mockito.any())).thenReturn(new SimpleTransactionStatus());
+
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getOutbox().setMaxAttempts(3);
+
+        reelOutboxService = new ReelOutboxService(
+            reelOutboxRepository,
+            reelOutboxDeadLetterRepository,
+            reelSearchRepository,
+            reelMapper,
+            objectMapper,
+            streamBridge,
+            transactionManager,
+            applicationProperties,
+            meterRegistry
+        );
+    }
+
+    @Test
+    void keepsTheEventsOfRejectedReels() throws Exception {
+        ReelOutboxEvent accepted = event(1L, UUID.randomUUID());
+        ReelOutboxEvent rejected = event(2L, UUID.randomUUID());
+        Mockito.when(reelOutboxRepository.findNextBatchForUpdate(Mockito.any(Instant.class), Mockito.any(Pageable.class))).thenReturn(
+            List.of(accepted, rejected)
+        );
+        Mockito.when(reelSearchRepository.flushIndex()).thenReturn(Map.of(rejected.getAggregateId(), "mapper_parsing_exception"));
+
+        assertThat(reelOutboxService.relayPending()).isEqualTo(1);
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<ReelOutboxEvent>> deleted = ArgumentCaptor.forClass(List.class);
+        Mockito.verify(reelOutboxRepository).deleteAllInBatch(deleted.capture());
+        assertThat(deleted.getValue()).containsExactly(accepted);
+        Mockito.verify(streamBridge, Mockito.times(1)).send(Mockito.anyString(), Mockito.any(Message.class));
+        assertThat(rejected.getAttempts()).isEqualTo(1);
+        assertThat(rejected.getNextAttemptAt()).isAfter(Instant.now());
+    }
+
+    @Test
+    void backsOffEachRejectionLonger() throws Exception {
+        ReelOutboxEvent rejected = event(1L, UUID.randomUUID()).attempts(1);
+        Mockito.when(reelOutboxRepository.findNextBatchForUpdate(Mockito.any(Instant.class), Mockito.any(Pageable.class))).thenReturn(
+            List.of(rejected)
+        );
+        Mockito.when(reelSearchRepository.flushIndex()).thenReturn(Map.of(rejected.getAggregateId(), "mapper_parsing_exception"));
+
+        Instant before = Instant.now();
+        assertThat(reelOutboxService.relayPending()).isZero();
+
+        assertThat(rejected.getAttempts()).isEqualTo(2);
+        // the default backoff of one second, doubled
+        assertThat(rejected.getNextAttemptAt()).isBetween(before.plus(Duration.ofSeconds(2)), Instant.now().plus(Duration.ofSeconds(2)));
+        Mockito.verify(reelOutboxDeadLetterRepository, Mockito.never()).saveAll(Mockito.any());
+    }
+
+    @Test
+    void movesEventsRejectedTooOftenToTheDeadLetterTable() throws Exception {
+        ReelOutboxEvent poison = event(1L, UUID.randomUUID()).attempts(2).payload("{not json");
+        Mockito.when(reelOutboxRepository.findNextBatchForUpdate(Mockito.any(Instant.class), Mockito.any(Pageable.class))).thenReturn(
+            List.of(poison)
+        );
+        Mockito.when(reelSearchRepository.flushIndex()).thenReturn(Map.of());
+
+        assertThat(reelOutboxService.relayPending()).isZero();
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<ReelOutboxDeadLetter>> deadLetters = ArgumentCaptor.forClass(List.class);
+        Mockito.verify(reelOutboxDeadLetterRepository).saveAll(deadLetters.capture());
+        assertThat(deadLetters.getValue()).singleElement().satisfies(deadLetter -> {
+            assertThat(deadLetter.getId()).isEqualTo(1L);
+            assertThat(deadLetter.getAttempts()).isEqualTo(3);
+            assertThat(deadLetter.getError()).startsWith("Corrupted payload");
+        });
+        Mockito.verify(reelOutboxRepository).deleteAllInBatch(List.of(poison));
+        Mockito.verify(streamBridge, Mockito.never()).send(Mockito.anyString(), Mockito.any(Message.class));
+        assertThat(meterRegistry.get("reel.outbox.dead.letters").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void versionsEachReelWithItsLatestEvent() throws Exception {
+        UUID reelId = UUID.randomUUID();
+        ReelOutboxEvent older = event(3L, reelId);
+        ReelOutboxEvent newer = event(7L, reelId);
+        Mockito.when(reelOutboxRepository.findNextBatchForUpdate(Mockito.any(Instant.class), Mockito.any(Pageable.class))).thenReturn(
+            List.of(older, newer)
+        );
+        Mockito.when(reelSearchRepository.flushIndex()).thenReturn(Map.of());
+
+        assertThat(reelOutboxService.relayPending()).isEqualTo(2);
+
+        Mockito.verify(reelSearchRepository).index(Mockito.argThat(reel -> reelId.equals(reel.getId())), Mockito.eq(7L));
+        Mockito.verify(reelSearchRepository, Mockito.never()).index(Mockito.any(Reel.class), Mockito.eq(3L));
+    }
+
+    private ReelOutboxEvent event(long id, UUID reelId) throws Exception {
+        ReelDTO reel = new ReelDTO();
+        reel.setId(reelId);
+        reel.setUserId(UUID.randomUUID());
+        reel.setTitle("title");
+        reel.setVideoUrl("http://video");
+        reel.setCreatedAt(Instant.now());
+        return new ReelOutboxEvent()
+            .id(id)
+            .aggregateId(reelId)
+            .eventType(ReelOutboxEventType.UPSERTED)
+            .payload(objectMapper.writeValueAsString(reel))
+            .createdAt(Instant.now());
+    }
+}
@@ -0,0 +1,117 @@
+package com.f4.reel.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.f4.reel.client.api.KeycloakUserResourceApi;
+import com.f4.reel.client.api.UserResourceApi;
+import com.f4.reel.client.model.RedisUserDTO;
+import com.f4.reel.client.model.UserDTO;
+import com.f4.reel.config.ApplicationProperties;
+import com.f4.reel.service.dto.UserProfileDTO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+class UserProfileServiceTest {
+
+    private final CountDownLatch serviceReleased = new CountDownLatch(1);
+
+    private UserResourceApi userResourceApi;
+
+    private UserProfileService userProfileService;
+
+    @BeforeEach
+    void init() {
+        userResourceApi = Mockito.mock(UserResourceApi.class);
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getUserProfileCache().setLookupTimeout(Duration.ofMillis(100));
+        userProfileService = new UserProfileService(
+            userResourceApi,
+            Mockito.mock(KeycloakUserResourceApi.class),
+            applicationProperties,
+            new SimpleMeterRegistry()
+        );
+    }
+
+    @AfterEach
+    void shutdown() {
+        serviceReleased.countDown();
+        userProfileService.shutdown();
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void loadsAllTheMissesInASingleCall() {
+        UUID cached = UUID.randomUUID();
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        Mockito.when(userResourceApi.getUsersFromRedisPost(Mockito.anyList())).thenAnswer(invocation ->
+            invocation.<List<UUID>>getArgument(0).stream().map(UserProfileServiceTest::redisUser).toList()
+        );
+        userProfileService.getProfile(cached);
+
+        Map<UUID, UserProfileDTO> profiles = userProfileService.getProfiles(List.of(cached, first, second));
+
+        assertThat(profiles).containsOnlyKeys(cached, first, second);
+        Mockito.verify(userResourceApi).getUsersFromRedisPost(List.of(cached));
+        Mockito.verify(userResourceApi).getUsersFromRedisPost(
+            Mockito.argThat(ids -> ids.size() == 2 && ids.containsAll(List.of(first, second)))
+        );
+        Mockito.verifyNoMoreInteractions(userResourceApi);
+    }
+
+    @Test
+    void servesWhatIsCachedWhenTheServiceIsTooSlow() {
+        UUID cached = UUID.randomUUID();
+        UUID slow = UUID.randomUUID();
+        Mockito.when(userResourceApi.getUsersFromRedisPost(List.of(cached))).thenReturn(List.of(redisUser(cached)));
+        Mockito.when(userResourceApi.getUsersFromRedisPost(List.of(slow))).thenAnswer(invocation -> {
+            serviceReleased.await();
+            return List.of(redisUser(slow));
+        });
+        userProfileService.getProfile(cached);
+
+        assertThat(userProfileService.getProfiles(List.of(cached, slow))).containsOnlyKeys(cached);
+    }
+
+    @Test
+    void getAllUsersGivesUpAfterTheLookupTimeout() {
+        Mockito.when(userResourceApi.getAllUsers()).thenAnswer(invocation -> {
+            serviceReleased.await();
+            return List.of(new UserDTO());
+        });
+
+        long start = System.nanoTime();
+        assertThat(userProfileService.getAllUsers()).isEmpty();
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(2));
+    }
+
+    @Test
+    void cachesTheUsersPerCaller() {
+        Mockito.when(userResourceApi.getAllUsers()).thenReturn(List.of(new UserDTO()));
+
+        SecurityContextHolder.getContext().setAuthentication(new TestingAuthenticationToken("alice", null));
+        userProfileService.getAllUsers();
+        userProfileService.getAllUsers();
+        SecurityContextHolder.getContext().setAuthentication(new TestingAuthenticationToken("bob", null));
+        userProfileService.getAllUsers();
+
+        Mockito.verify(userResourceApi, Mockito.times(2)).getAllUsers();
+    }
+
+    private static RedisUserDTO redisUser(UUID id) {
+        RedisUserDTO user = new RedisUserDTO();
+        user.setId(id);
+        user.setUsername("user-" + id);
+        return user;
+    }
+}
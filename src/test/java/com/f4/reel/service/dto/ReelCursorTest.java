@@ -0,0 +1,39 @@
+package com.f4.reel.service.dto;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Instant;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+
+class ReelCursorTest {
+
+    @Test
+    void encodeDecodeRoundTrip() {
+        ReelCursor cursor = new ReelCursor(Instant.parse("2025-04-22T05:24:15.123456Z"), UUID.randomUUID());
+
+        String token = cursor.encode();
+
+        assertThat(token).doesNotContain("=", "+", "/");
+        assertThat(ReelCursor.decode(token)).isEqualTo(cursor);
+    }
+
+    @Test
+    void ofUsesLastReelPosition() {
+        ReelDTO reelDTO = new ReelDTO();
+        reelDTO.setId(UUID.randomUUID());
+        reelDTO.setCreatedAt(Instant.ofEpochMilli(0L));
+
+        ReelCursor cursor = ReelCursor.of(reelDTO);
+
+        assertThat(cursor.getId()).isEqualTo(reelDTO.getId());
+        assertThat(cursor.getCreatedAt()).isEqualTo(reelDTO.getCreatedAt());
+    }
+
+    @Test
+    void decodeRejectsInvalidToken() {
+        assertThatThrownBy(() -> ReelCursor.decode("not a cursor")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> ReelCursor.decode("bm8tc2VwYXJhdG9y")).isInstanceOf(IllegalArgumentException.class);
+    }
+}
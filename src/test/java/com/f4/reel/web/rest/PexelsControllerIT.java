@@ -0,0 +1,122 @@
+package com.f4.reel.web.rest;
+
+import static org.awaitility.Awaitility.await;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.startsWith;
+import static org.mockito.Mockito.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import com.f4.reel.IntegrationTest;
+import com.f4.reel.repository.ReelRepository;
+import com.f4.reel.service.PexelsService;
+import com.f4.reel.service.dto.PexelsImportJobDTO;
+import com.f4.reel.service.dto.PexelsImportRequest;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+/**
+ * Integration tests for the import endpoints of the {@link PexelsController} REST controller.
+ */
+@IntegrationTest
+@AutoConfigureMockMvc
+@WithMockUser
+class PexelsControllerIT {
+
+    private static final String IMPORT_API_URL = "/api/pexels/videos/import";
+    private static final String IMPORT_API_URL_ID = "/api/pexels/imports/{id}";
+
+    private static final String STORED_URL = "https://videos.pexels.com/video-files/1/stored.mp4";
+    private static final String FAILING_URL = "https://videos.pexels.com/video-files/2/failing.mp4";
+
+    @Autowired
+    private ObjectMapper om;
+
+    @Autowired
+    private ReelRepository reelRepository;
+
+    @Autowired
+    private MockMvc restPexelsMockMvc;
+
+    @MockitoBean
+    private PexelsService pexelsService;
+
+    private final UUID userId = UUID.randomUUID();
+
+    @AfterEach
+    void cleanup() {
+        reelRepository.deleteAll(reelRepository.findAll().stream().filter(reel -> userId.equals(reel.getUserId())).toList());
+    }
+
+    @Test
+    void importReportsThePartialFailureOfAJob() throws Exception {
+        when(pexelsService.storePexelsVideo(STORED_URL)).thenReturn("https://minio/reels/stored.mp4");
+        when(pexelsService.storePexelsVideo(FAILING_URL)).thenThrow(new IllegalStateException("download failed"));
+
+        String body = restPexelsMockMvc
+            .perform(
+                post(IMPORT_API_URL)
+                    .with(csrf())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(om.writeValueAsBytes(request(STORED_URL, FAILING_URL)))
+            )
+            .andExpect(status().isAccepted())
+            .andExpect(header().string("Location", startsWith("/api/pexels/imports/")))
+            .andExpect(jsonPath("$.total").value(2))
+            .andReturn()
+            .getResponse()
+            .getContentAsString();
+        UUID jobId = om.readValue(body, PexelsImportJobDTO.class).getId();
+
+        await()
+            .atMost(10, TimeUnit.SECONDS)
+            .untilAsserted(() ->
+                restPexelsMockMvc
+                    .perform(get(IMPORT_API_URL_ID, jobId))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.status").value("COMPLETED"))
+                    .andExpect(jsonPath("$.stored").value(1))
+                    .andExpect(jsonPath("$.created").value(1))
+                    .andExpect(jsonPath("$.failed").value(1))
+                    .andExpect(jsonPath("$.errors").value(contains(FAILING_URL + ": download failed")))
+                    .andExpect(jsonPath("$.finishedAt").exists())
+            );
+    }
+
+    @Test
+    void importRefusesHostsNotAllowed() throws Exception {
+        restPexelsMockMvc
+            .perform(
+                post(IMPORT_API_URL)
+                    .with(csrf())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(om.writeValueAsBytes(request(STORED_URL, "http://169.254.169.254/latest/meta-data")))
+            )
+            .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(pexelsService);
+    }
+
+    @Test
+    void getUnknownImport() throws Exception {
+        restPexelsMockMvc.perform(get(IMPORT_API_URL_ID, UUID.randomUUID())).andExpect(status().isNotFound());
+    }
+
+    private PexelsImportRequest request(String... urls) {
+        PexelsImportRequest request = new PexelsImportRequest();
+        request.setUserId(userId);
+        request.setUrls(List.of(urls));
+        return request;
+    }
+}
@@ -14,6 +14,7 @@ import com.f4.reel.IntegrationTest;
 import com.f4.reel.domain.Reel;
 import com.f4.reel.repository.ReelRepository;
 import com.f4.reel.repository.search.ReelSearchRepository;
+import com.f4.reel.service.ReelOutboxService;
 import com.f4.reel.service.dto.ReelDTO;
 import com.f4.reel.service.mapper.ReelMapper;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -71,6 +72,9 @@ class ReelResourceIT {
     @Autowired
     private ReelSearchRepository reelSearchRepository;
 
+    @Autowired
+    private ReelOutboxService reelOutboxService;
+
     @Autowired
     private EntityManager em;
 
@@ -137,6 +141,8 @@ class ReelResourceIT {
         var returnedReel = reelMapper.toEntity(returnedReelDTO);
         assertReelUpdatableFieldsEquals(returnedReel, getPersistedReel(returnedReel));
 
+        // Relay the outbox within the test transaction
+        reelOutboxService.relayPending();
         await()
             .atMost(5, TimeUnit.SECONDS)
             .untilAsserted(() -> {
@@ -270,6 +276,66 @@ class ReelResourceIT {
             .andExpect(jsonPath("$.[*].createdAt").value(hasItem(DEFAULT_CREATED_AT.toString())));
     }
 
+    @Test
+    @Transactional
+    void getAllReelsWithKeysetCursor() throws Exception {
+        // Initialize the database
+        Instant future = Instant.now().plus(1, ChronoUnit.DAYS).truncatedTo(ChronoUnit.MILLIS);
+        Reel older = reelRepository.saveAndFlush(createEntity().createdAt(future));
+        Reel newer = reelRepository.saveAndFlush(createEntity().createdAt(future.plusSeconds(1)));
+
+        // Get the first slice, then follow the cursor
+        String nextCursor = restReelMockMvc
+            .perform(get(ENTITY_API_URL + "?after=&size=1"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[0].id").value(newer.getId().toString()))
+            .andExpect(header().exists("X-Next-Cursor"))
+            .andExpect(header().doesNotExist("X-Total-Count"))
+            .andReturn()
+            .getResponse()
+            .getHeader("X-Next-Cursor");
+
+        restReelMockMvc
+            .perform(get(ENTITY_API_URL + "?size=1&after=" + nextCursor))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[0].id").value(older.getId().toString()));
+    }
+
+    @Test
+    @Transactional
+    void getReelsByUserWithKeysetCursor() throws Exception {
+        // Initialize the database
+        UUID userId = UUID.randomUUID();
+        Instant now = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+        Reel older = reelRepository.saveAndFlush(createEntity().userId(userId).createdAt(now));
+        Reel newer = reelRepository.saveAndFlush(createEntity().userId(userId).createdAt(now.plusSeconds(1)));
+        reelRepository.saveAndFlush(createEntity().createdAt(now.plusSeconds(2)));
+
+        // Get the first slice, then follow the cursor
+        String nextCursor = restReelMockMvc
+            .perform(get(ENTITY_API_URL + "/by-user/{userId}?size=1", userId))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.length()").value(1))
+            .andExpect(jsonPath("$.[0].id").value(newer.getId().toString()))
+            .andExpect(jsonPath("$.[0].title").value(DEFAULT_TITLE))
+            .andExpect(header().exists("X-Next-Cursor"))
+            .andReturn()
+            .getResponse()
+            .getHeader("X-Next-Cursor");
+
+        restReelMockMvc
+            .perform(get(ENTITY_API_URL + "/by-user/{userId}?size=1&after=" + nextCursor, userId))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.length()").value(1))
+            .andExpect(jsonPath("$.[0].id").value(older.getId().toString()));
+    }
+
+    @Test
+    @Transactional
+    void getAllReelsWithInvalidCursor() throws Exception {
+        restReelMockMvc.perform(get(ENTITY_API_URL + "?after=invalid")).andExpect(status().isBadRequest());
+    }
+
     @Test
     @Transactional
     void getReel() throws Exception {
@@ -295,6 +361,27 @@ class ReelResourceIT {
         restReelMockMvc.perform(get(ENTITY_API_URL_ID, UUID.randomUUID().toString())).andExpect(status().isNotFound());
     }
 
+    @Test
+    @Transactional
+    void getReelsInBatch() throws Exception {
+        // Initialize the database
+        insertedReel = reelRepository.saveAndFlush(reel);
+
+        // Get the reel along with a missing one, twice
+        restReelMockMvc
+            .perform(
+                post(ENTITY_API_URL + "/_batch")
+                    .with(csrf())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(om.writeValueAsBytes(List.of(UUID.randomUUID(), reel.getId(), reel.getId())))
+            )
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(jsonPath("$.length()").value(1))
+            .andExpect(jsonPath("$.[0].id").value(reel.getId().toString()))
+            .andExpect(jsonPath("$.[0].title").value(DEFAULT_TITLE));
+    }
+
     @Test
     @Transactional
     void putExistingReel() throws Exception {
@@ -325,6 +412,8 @@ class ReelResourceIT {
         assertSameRepositoryCount(databaseSizeBeforeUpdate);
         assertPersistedReelToMatchAllProperties(updatedReel);
 
+        // Relay the outbox within the test transaction
+        reelOutboxService.relayPending();
         await()
             .atMost(5, TimeUnit.SECONDS)
             .untilAsserted(() -> {
@@ -560,8 +649,14 @@ class ReelResourceIT {
 
         // Validate the database contains one less item
         assertDecrementedRepositoryCount(databaseSizeBeforeDelete);
-        int searchDatabaseSizeAfter = IterableUtil.sizeOf(reelSearchRepository.findAll());
-        assertThat(searchDatabaseSizeAfter).isEqualTo(searchDatabaseSizeBefore - 1);
+        // Relay the outbox within the test transaction
+        reelOutboxService.relayPending();
+        await()
+            .atMost(5, TimeUnit.SECONDS)
+            .untilAsserted(() -> {
+                int searchDatabaseSizeAfter = IterableUtil.sizeOf(reelSearchRepository.findAll());
+                assertThat(searchDatabaseSizeAfter).isEqualTo(searchDatabaseSizeBefore - 1);
+            });
     }
 
     @Test
@@ -0,0 +1,148 @@
+package com.f4.reel.web.rest;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import com.f4.reel.IntegrationTest;
+import com.f4.reel.service.MinioStorageService;
+import com.f4.reel.service.ReelVideoService;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+/**
+ * Integration tests for the {@link ReelStreamResource} REST controller.
+ */
+@IntegrationTest
+@AutoConfigureMockMvc
+@WithMockUser
+class ReelStreamResourceIT {
+
+    private static final String STREAM_API_URL = "/api/reels/{id}/stream";
+
+    private static final byte[] VIDEO = "0123456789".getBytes(StandardCharsets.US_ASCII);
+
+    private static final String ETAG = "abc123";
+
+    private final UUID id = UUID.randomUUID();
+
+    private final MinioStorageService.ObjectStat video = new MinioStorageService.ObjectStat(
+        "reels/video.mp4",
+        VIDEO.length,
+        ETAG,
+        "video/mp4",
+        Instant.parse("2024-01-01T00:00:00Z")
+    );
+
+    @Autowired
+    private MockMvc restStreamMockMvc;
+
+    @MockitoBean
+    private ReelVideoService reelVideoService;
+
+    @BeforeEach
+    void initTest() throws Exception {
+        when(reelVideoService.findVideo(id)).thenReturn(Optional.of(video));
+        doAnswer(invocation -> {
+            long offset = invocation.getArgument(1);
+            long length = invocation.getArgument(2);
+            invocation.<OutputStream>getArgument(3).write(Arrays.copyOfRange(VIDEO, (int) offset, (int) (offset + length)));
+            return null;
+        })
+            .when(reelVideoService)
+            .write(eq(video), anyLong(), anyLong(), any(OutputStream.class));
+    }
+
+    @Test
+    void streamTheWholeVideo() throws Exception {
+        MvcResult result = restStreamMockMvc.perform(get(STREAM_API_URL, id)).andExpect(request().asyncStarted()).andReturn();
+
+        restStreamMockMvc
+            .perform(asyncDispatch(result))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ACCEPT_RANGES, "bytes"))
+            .andExpect(header().string(HttpHeaders.ETAG, "\"" + ETAG + "\""))
+            .andExpect(header().string(HttpHeaders.CACHE_CONTROL, containsString("private")))
+            .andExpect(content().bytes(VIDEO));
+    }
+
+    @Test
+    void streamARange() throws Exception {
+        MvcResult result = restStreamMockMvc
+            .perform(get(STREAM_API_URL, id).header(HttpHeaders.RANGE, "bytes=2-5"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+        restStreamMockMvc
+            .perform(asyncDispatch(result))
+            .andExpect(status().isPartialContent())
+            .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 2-5/10"))
+            .andExpect(header().longValue(HttpHeaders.CONTENT_LENGTH, 4))
+            .andExpect(content().string("2345"));
+    }
+
+    @Test
+    void streamTheWholeVideoWhenIfRangeIsStale() throws Exception {
+        MvcResult result = restStreamMockMvc
+            .perform(get(STREAM_API_URL, id).header(HttpHeaders.RANGE, "bytes=2-5").header(HttpHeaders.IF_RANGE, "\"stale\""))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+        restStreamMockMvc
+            .perform(asyncDispatch(result))
+            .andExpect(status().isOk())
+            .andExpect(header().doesNotExist(HttpHeaders.CONTENT_RANGE))
+            .andExpect(content().bytes(VIDEO));
+    }
+
+    @Test
+    void streamARangeWhenIfRangeIsCurrent() throws Exception {
+        MvcResult result = restStreamMockMvc
+            .perform(get(STREAM_API_URL, id).header(HttpHeaders.RANGE, "bytes=8-").header(HttpHeaders.IF_RANGE, "\"" + ETAG + "\""))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+        restStreamMockMvc
+            .perform(asyncDispatch(result))
+            .andExpect(status().isPartialContent())
+            .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 8-9/10"))
+            .andExpect(content().string("89"));
+    }
+
+    @Test
+    void answerNotModifiedToACurrentCopy() throws Exception {
+        restStreamMockMvc
+            .perform(get(STREAM_API_URL, id).header(HttpHeaders.IF_NONE_MATCH, "\"" + ETAG + "\""))
+            .andExpect(status().isNotModified())
+            .andExpect(content().bytes(new byte[0]));
+
+        verify(reelVideoService, never()).write(any(), anyLong(), anyLong(), any());
+    }
+
+    @Test
+    void refuseAnUnsatisfiableRange() throws Exception {
+        restStreamMockMvc
+            .perform(get(STREAM_API_URL, id).header(HttpHeaders.RANGE, "bytes=20-30"))
+            .andExpect(status().isRequestedRangeNotSatisfiable())
+            .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes */10"));
+    }
+
+    @Test
+    void getUnknownReel() throws Exception {
+        restStreamMockMvc.perform(get(STREAM_API_URL, UUID.randomUUID())).andExpect(status().isNotFound());
+    }
+}